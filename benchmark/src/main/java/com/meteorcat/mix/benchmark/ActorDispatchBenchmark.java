@@ -0,0 +1,147 @@
+package com.meteorcat.mix.benchmark;
+
+import com.meteorcat.mix.core.actor.ActorInterceptors;
+import com.meteorcat.mix.core.actor.ActorMetrics;
+import com.meteorcat.mix.core.actor.ActorTuple;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ActorTuple dispatch against a direct call
+ *
+ * @author MeteorCat
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ActorDispatchBenchmark {
+
+    /**
+     * Controller
+     */
+    private final Controller controller = new Controller();
+
+    /**
+     * Mapping tuple
+     */
+    private ActorTuple tuple;
+
+    /**
+     * Instrumented mapping tuple
+     */
+    private ActorTuple instrumented;
+
+    /**
+     * Mapping tuple behind two pass-through interceptors
+     */
+    private ActorTuple intercepted;
+
+    /**
+     * Message argument
+     */
+    private String message = "hello";
+
+
+    /**
+     * Handler controller
+     */
+    public static class Controller {
+
+        /**
+         * handled messages
+         */
+        private long handled;
+
+        /**
+         * handler
+         *
+         * @param session session id
+         * @param message message
+         * @return long
+         */
+        public long handle(Long session, String message) {
+            return handled += session + message.length();
+        }
+    }
+
+
+    /**
+     * Build tuple
+     *
+     * @throws NoSuchMethodException missing handler
+     */
+    @Setup
+    public void setup() throws NoSuchMethodException {
+        Method method = Controller.class.getMethod("handle", Long.class, String.class);
+        tuple = new ActorTuple(1, controller, method);
+        instrumented = new ActorMetrics().instrument(tuple);
+        ActorInterceptors interceptors = new ActorInterceptors();
+        interceptors.addInterceptor((target, args, next) -> next.invoke(args));
+        interceptors.addInterceptor((target, args, next) -> args[0] == null ? null : next.invoke(args));
+        intercepted = interceptors.intercept(tuple);
+    }
+
+
+    /**
+     * Direct call baseline
+     *
+     * @return long
+     */
+    @Benchmark
+    public long direct() {
+        return controller.handle(1L, message);
+    }
+
+
+    /**
+     * Method.invoke through ActorTuple
+     *
+     * @return Object
+     * @throws Exception handler failure
+     */
+    @Benchmark
+    public Object reflective() throws Exception {
+        return tuple.getMethod().invoke(tuple.getInstance(), 1L, message);
+    }
+
+
+    /**
+     * MethodHandle invoker through ActorTuple
+     *
+     * @return Object
+     * @throws Exception handler failure
+     */
+    @Benchmark
+    public Object invoker() throws Exception {
+        return tuple.invoke(1L, message);
+    }
+
+
+    /**
+     * Invoker under ActorMetrics, default sampling
+     *
+     * @return Object
+     * @throws Exception handler failure
+     */
+    @Benchmark
+    public Object instrumented() throws Exception {
+        return instrumented.invoke(1L, message);
+    }
+
+
+    /**
+     * Invoker behind two ActorInterceptors
+     *
+     * @return Object
+     * @throws Exception handler failure
+     */
+    @Benchmark
+    public Object intercepted() throws Exception {
+        return intercepted.invoke(1L, message);
+    }
+}
@@ -0,0 +1,156 @@
+package com.meteorcat.mix.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.meteorcat.mix.core.actor.ActorPayload;
+import com.meteorcat.mix.core.actor.ActorTuple;
+import com.meteorcat.mix.core.utils.JsonNodeExtends;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Handler payload: tree parse with field-by-field Optional lookups against typed ActorPayload decode
+ *
+ * @author MeteorCat
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ActorPayloadBenchmark {
+
+    /**
+     * Message payload
+     */
+    private static final String PAYLOAD = "{\"uid\":10086,\"name\":\"meteorcat\",\"level\":42,\"token\":\"0123456789abcdef\"}";
+
+    /**
+     * Message payload bytes
+     */
+    private final byte[] bytes = PAYLOAD.getBytes(StandardCharsets.UTF_8);
+
+    /**
+     * Tree mapper
+     */
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    /**
+     * Controller
+     */
+    private final Controller controller = new Controller();
+
+    /**
+     * Typed mapping tuple
+     */
+    private ActorTuple tuple;
+
+
+    /**
+     * Login payload
+     */
+    public static class Login {
+
+        /**
+         * user id
+         */
+        public long uid;
+
+        /**
+         * user name
+         */
+        public String name;
+
+        /**
+         * user level
+         */
+        public int level;
+
+        /**
+         * auth token
+         */
+        public String token;
+    }
+
+
+    /**
+     * Handler controller
+     */
+    public static class Controller {
+
+        /**
+         * handler reading fields itself
+         *
+         * @param session session id
+         * @param node    payload tree
+         * @return long
+         */
+        public long tree(Long session, JsonNode node) {
+            long uid = JsonNodeExtends.isLong(node, "uid").orElse(0L);
+            String name = JsonNodeExtends.isText(node, "name").orElse("");
+            int level = JsonNodeExtends.isInteger(node, "level").orElse(0);
+            String token = JsonNodeExtends.isText(node, "token").orElse("");
+            return session + uid + name.length() + level + token.length();
+        }
+
+        /**
+         * handler with typed payload
+         *
+         * @param session session id
+         * @param login   payload
+         * @return long
+         */
+        public long typed(Long session, @ActorPayload Login login) {
+            return session + login.uid + login.name.length() + login.level + login.token.length();
+        }
+    }
+
+
+    /**
+     * Build tuple
+     *
+     * @throws NoSuchMethodException missing handler
+     */
+    @Setup
+    public void setup() throws NoSuchMethodException {
+        tuple = new ActorTuple(1, controller, Controller.class.getMethod("typed", Long.class, Login.class));
+    }
+
+
+    /**
+     * String parsed to tree, handler reads Optional fields
+     *
+     * @return long
+     */
+    @Benchmark
+    public long tree() {
+        return controller.tree(1L, JsonNodeExtends.isNode(mapper, PAYLOAD).orElseThrow());
+    }
+
+
+    /**
+     * String decoded into payload type
+     *
+     * @return Object
+     * @throws Exception handler failure
+     */
+    @Benchmark
+    public Object typed() throws Exception {
+        return tuple.dispatch(PAYLOAD, 1L, null);
+    }
+
+
+    /**
+     * Bytes decoded into payload type
+     *
+     * @return Object
+     * @throws Exception handler failure
+     */
+    @Benchmark
+    public Object typedBytes() throws Exception {
+        return tuple.dispatch(bytes, 1L, null);
+    }
+}
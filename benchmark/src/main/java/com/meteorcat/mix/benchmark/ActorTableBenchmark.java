@@ -0,0 +1,108 @@
+package com.meteorcat.mix.benchmark;
+
+import com.meteorcat.mix.core.actor.ActorDispatchTable;
+import com.meteorcat.mix.core.actor.ActorTuple;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * opcode to ActorTuple lookup: boxed map against ActorDispatchTable
+ *
+ * @author MeteorCat
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ActorTableBenchmark {
+
+    /**
+     * Lookups per invocation
+     */
+    private static final int LOOKUPS = 1024;
+
+    /**
+     * Opcode count
+     */
+    @Param({"256"})
+    public int opcodes;
+
+    /**
+     * Opcode layout: dense contiguous range or sparse random opcodes
+     */
+    @Param({"dense", "sparse"})
+    public String layout;
+
+    /**
+     * Scan result map
+     */
+    private Map<Integer, ActorTuple> map;
+
+    /**
+     * Dispatch table
+     */
+    private ActorDispatchTable table;
+
+    /**
+     * Looked up opcodes
+     */
+    private int[] keys;
+
+
+    /**
+     * Build opcodes
+     */
+    @Setup
+    public void setup() {
+        SplittableRandom random = new SplittableRandom(42);
+        map = new LinkedHashMap<>();
+        while (map.size() < opcodes) {
+            int opcode = "dense".equals(layout) ? 1000 + map.size() : random.nextInt(1, 1 << 20);
+            map.put(opcode, new ActorTuple(opcode, null, null, args -> null));
+        }
+        table = ActorDispatchTable.of(map);
+        Integer[] registered = map.keySet().toArray(new Integer[0]);
+        keys = new int[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            keys[i] = registered[random.nextInt(registered.length)];
+        }
+    }
+
+
+    /**
+     * Boxed map lookup
+     *
+     * @return int
+     */
+    @Benchmark
+    @OperationsPerInvocation(LOOKUPS)
+    public int map() {
+        int found = 0;
+        for (int key : keys) {
+            found += map.get(key).getValue();
+        }
+        return found;
+    }
+
+
+    /**
+     * Dispatch table lookup
+     *
+     * @return int
+     */
+    @Benchmark
+    @OperationsPerInvocation(LOOKUPS)
+    public int table() {
+        int found = 0;
+        for (int key : keys) {
+            found += table.get(key).getValue();
+        }
+        return found;
+    }
+}
@@ -0,0 +1,128 @@
+package com.meteorcat.mix.benchmark;
+
+import com.meteorcat.mix.core.event.Event;
+import com.meteorcat.mix.core.event.EventMonitor;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Broadcast one event to many owners: execute per owner vs executeAll
+ *
+ * @author MeteorCat
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventBatchBenchmark {
+
+    /**
+     * Broadcast event
+     */
+    private static final int EVENT = 1;
+
+    /**
+     * Owner count
+     */
+    @Param({"1000", "10000"})
+    public int owners;
+
+    /**
+     * Pool threads
+     */
+    @Param({"4"})
+    public int threads;
+
+    /**
+     * Mailbox mode?
+     */
+    @Param({"false", "true"})
+    public boolean mailbox;
+
+    /**
+     * Monitor
+     */
+    private EventMonitor<Long, Integer> monitor;
+
+    /**
+     * Owner ids
+     */
+    private List<Long> ids;
+
+    /**
+     * Callbacks not yet run
+     */
+    private final AtomicInteger remaining = new AtomicInteger();
+
+
+    /**
+     * Register one event per owner
+     */
+    @Setup
+    public void setup() {
+        monitor = new EventMonitor<>(threads);
+        monitor.setMailbox(mailbox);
+        ids = new ArrayList<>(owners);
+        for (long owner = 0; owner < owners; owner++) {
+            ids.add(owner);
+            monitor.putEvent(owner, EVENT, new Event(remaining::decrementAndGet));
+        }
+    }
+
+
+    /**
+     * Stop monitor
+     */
+    @TearDown
+    public void tearDown() {
+        monitor.shutdownNow();
+    }
+
+
+    /**
+     * One execute call per owner
+     *
+     * @return int
+     */
+    @Benchmark
+    public int executeEach() {
+        remaining.set(owners);
+        for (Long owner : ids) {
+            monitor.execute(owner, EVENT);
+        }
+        return await();
+    }
+
+
+    /**
+     * One executeAll call
+     *
+     * @return int
+     */
+    @Benchmark
+    public int executeAll() {
+        remaining.set(owners);
+        monitor.executeAll(ids, EVENT);
+        return await();
+    }
+
+
+    /**
+     * Spin until every callback ran
+     *
+     * @return int
+     */
+    private int await() {
+        int value;
+        while ((value = remaining.get()) > 0) {
+            Thread.onSpinWait();
+        }
+        return value;
+    }
+}
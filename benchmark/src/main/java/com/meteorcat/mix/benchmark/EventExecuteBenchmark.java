@@ -0,0 +1,141 @@
+package com.meteorcat.mix.benchmark;
+
+import com.meteorcat.mix.core.event.Event;
+import com.meteorcat.mix.core.event.EventMonitor;
+import com.meteorcat.mix.core.event.IEventMonitor;
+import com.meteorcat.mix.core.event.ShardedEventMonitor;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * execute throughput: owners=1 is single-owner hot contention, large owners is many-owner fan-out
+ * <p>
+ * Each producer thread submits a batch of callbacks then waits until that many more callbacks finished,
+ * producer count is the JMH thread count ({@code -t}).
+ *
+ * @author MeteorCat
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class EventExecuteBenchmark {
+
+    /**
+     * Event name
+     */
+    private static final int EVENT = 1;
+
+    /**
+     * Callbacks per invocation and producer
+     */
+    private static final int BATCH = 100;
+
+    /**
+     * Owner count
+     */
+    @Param({"1", "10000"})
+    public int owners;
+
+    /**
+     * Pool threads or shards
+     */
+    @Param({"4"})
+    public int threads;
+
+    /**
+     * Monitor mode: synchronized(owner) pool, mailbox pool or owner shards
+     */
+    @Param({"synchronized", "mailbox", "sharded"})
+    public String mode;
+
+    /**
+     * Monitor
+     */
+    private IEventMonitor<Long, Integer> monitor;
+
+    /**
+     * Stop monitor
+     */
+    private Runnable stop;
+
+    /**
+     * Finished callbacks
+     */
+    private final AtomicLong finished = new AtomicLong();
+
+
+    /**
+     * Producer state
+     */
+    @State(Scope.Thread)
+    public static class Producer {
+
+        /**
+         * next owner
+         */
+        long owner;
+    }
+
+
+    /**
+     * Register one event per owner
+     */
+    @Setup
+    public void setup() {
+        if ("sharded".equals(mode)) {
+            ShardedEventMonitor<Long, Integer> sharded = new ShardedEventMonitor<>(threads);
+            for (long owner = 0; owner < owners; owner++) {
+                sharded.putEvent(owner, EVENT, new Event(finished::incrementAndGet));
+            }
+            monitor = sharded;
+            stop = sharded::shutdownNow;
+        } else {
+            EventMonitor<Long, Integer> pool = new EventMonitor<>(threads);
+            pool.setMailbox("mailbox".equals(mode));
+            for (long owner = 0; owner < owners; owner++) {
+                pool.putEvent(owner, EVENT, new Event(finished::incrementAndGet));
+            }
+            monitor = pool;
+            stop = pool::shutdownNow;
+        }
+    }
+
+
+    /**
+     * Stop monitor
+     */
+    @TearDown
+    public void tearDown() {
+        stop.run();
+    }
+
+
+    /**
+     * Submit batch and wait until the monitor caught up
+     *
+     * @param producer producer state
+     * @return long
+     */
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public long execute(Producer producer) {
+        long target = finished.get() + BATCH;
+        for (int i = 0; i < BATCH; i++) {
+            monitor.execute(producer.owner, EVENT);
+            if (++producer.owner >= owners) {
+                producer.owner = 0;
+            }
+        }
+        long value;
+        while ((value = finished.get()) < target) {
+            Thread.onSpinWait();
+        }
+        return value;
+    }
+}
@@ -0,0 +1,121 @@
+package com.meteorcat.mix.benchmark;
+
+import com.meteorcat.mix.core.event.Event;
+import com.meteorcat.mix.core.event.EventRegistry;
+import com.meteorcat.mix.core.event.IEventRegistry;
+import com.meteorcat.mix.core.event.LongEventRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registry (owner, event) lookup
+ *
+ * @author MeteorCat
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class EventRegistryBenchmark {
+
+    /**
+     * Lookup keys
+     */
+    private static final int KEYS = 4096;
+
+    /**
+     * Registry: default (EventRegistry) or long (LongEventRegistry)
+     */
+    @Param({"default", "long"})
+    public String registry;
+
+    /**
+     * Owner count
+     */
+    @Param({"1000", "100000"})
+    public int owners;
+
+    /**
+     * Events per owner
+     */
+    @Param({"8"})
+    public int events;
+
+    /**
+     * Boxed registry view
+     */
+    private IEventRegistry<Long, Integer> boxed;
+
+    /**
+     * Primitive registry, null for default
+     */
+    private LongEventRegistry primitive;
+
+    /**
+     * Lookup owners
+     */
+    private long[] ownerKeys;
+
+    /**
+     * Lookup events
+     */
+    private int[] eventKeys;
+
+
+    /**
+     * Lookup cursor
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+
+        /**
+         * next key
+         */
+        int index;
+    }
+
+
+    /**
+     * Fill registry, fixed seed keys
+     */
+    @Setup
+    public void setup() {
+        primitive = "long".equals(registry) ? new LongEventRegistry() : null;
+        boxed = primitive != null ? primitive : new EventRegistry<>();
+        Event e = new Event(() -> {
+        });
+        for (long owner = 0; owner < owners; owner++) {
+            for (int event = 0; event < events; event++) {
+                boxed.put(owner, event, e, events);
+            }
+        }
+        SplittableRandom random = new SplittableRandom(42);
+        ownerKeys = new long[KEYS];
+        eventKeys = new int[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            ownerKeys[i] = random.nextInt(owners);
+            eventKeys[i] = random.nextInt(events);
+        }
+    }
+
+
+    /**
+     * Lookup, primitive overload when available
+     *
+     * @param cursor lookup cursor
+     * @return Event
+     */
+    @Benchmark
+    public Event get(Cursor cursor) {
+        int index = cursor.index++ & (KEYS - 1);
+        if (primitive != null) {
+            return primitive.get(ownerKeys[index], eventKeys[index]);
+        }
+        return boxed.get(ownerKeys[index], eventKeys[index]);
+    }
+}
@@ -0,0 +1,126 @@
+package com.meteorcat.mix.benchmark;
+
+import com.meteorcat.mix.core.event.EventMonitor;
+import com.meteorcat.mix.core.event.EventTimingWheel;
+import com.meteorcat.mix.core.event.IEventTimer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timer create/cancel churn, as owners add and drop buff/cooldown timers
+ *
+ * @author MeteorCat
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class EventTimerBenchmark {
+
+    /**
+     * Timer engine: executor (ScheduledThreadPoolExecutor) or wheel (EventTimingWheel)
+     */
+    @Param({"executor", "wheel"})
+    public String engine;
+
+    /**
+     * Pool threads
+     */
+    @Param({"4"})
+    public int threads;
+
+    /**
+     * Timers kept alive per producer
+     */
+    @Param({"1024"})
+    public int live;
+
+    /**
+     * Monitor
+     */
+    private EventMonitor<Long, Integer> monitor;
+
+    /**
+     * Timer engine
+     */
+    private IEventTimer timer;
+
+
+    /**
+     * Producer ring of live timers
+     */
+    @State(Scope.Thread)
+    public static class Producer {
+
+        /**
+         * live timers
+         */
+        ScheduledFuture<?>[] futures;
+
+        /**
+         * ring cursor
+         */
+        int cursor;
+    }
+
+
+    /**
+     * Create engine
+     */
+    @Setup
+    public void setup() {
+        monitor = new EventMonitor<>(threads);
+        monitor.setRemoveOnCancelPolicy(true);
+        if ("wheel".equals(engine)) {
+            monitor.setTimer(new EventTimingWheel(monitor));
+        }
+        timer = monitor.getTimer();
+    }
+
+
+    /**
+     * Stop engine
+     */
+    @TearDown
+    public void tearDown() {
+        if (timer instanceof EventTimingWheel) {
+            ((EventTimingWheel) timer).shutdown();
+        }
+        monitor.shutdownNow();
+    }
+
+
+    /**
+     * Cancel oldest live timer and schedule a new one in its place
+     *
+     * @param producer producer state
+     * @return ScheduledFuture<?>
+     */
+    @Benchmark
+    public ScheduledFuture<?> churn(Producer producer) {
+        if (producer.futures == null) {
+            producer.futures = new ScheduledFuture<?>[live];
+        }
+        int cursor = producer.cursor;
+        ScheduledFuture<?> old = producer.futures[cursor];
+        if (old != null) {
+            old.cancel(false);
+        }
+        ScheduledFuture<?> future = timer.schedule(EventTimerBenchmark::noop, 60, TimeUnit.SECONDS);
+        producer.futures[cursor] = future;
+        producer.cursor = cursor + 1 == live ? 0 : cursor + 1;
+        return future;
+    }
+
+
+    /**
+     * Timer callback
+     */
+    private static void noop() {
+    }
+}
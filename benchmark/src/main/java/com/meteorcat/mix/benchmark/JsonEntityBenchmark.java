@@ -0,0 +1,181 @@
+package com.meteorcat.mix.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.meteorcat.mix.core.utils.JsonEntityTable;
+import com.meteorcat.mix.core.utils.JsonNodeExtends;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Config table load: per-row re-parse against tree conversion, streaming and parallel conversion
+ *
+ * @author MeteorCat
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonEntityBenchmark {
+
+    /**
+     * Table rows
+     */
+    @Param({"1000", "50000"})
+    public int rows;
+
+    /**
+     * Table mapper
+     */
+    private final ObjectMapper mapper = JsonNodeExtends.getMapper();
+
+    /**
+     * Table source
+     */
+    private String data;
+
+    /**
+     * Table file
+     */
+    private Path path;
+
+
+    /**
+     * Table row
+     */
+    public static class Item {
+
+        /**
+         * item id
+         */
+        public int id;
+
+        /**
+         * item name
+         */
+        public String name;
+
+        /**
+         * stack limit
+         */
+        public int stack;
+
+        /**
+         * price
+         */
+        public long price;
+
+        /**
+         * tradable?
+         */
+        public boolean tradable;
+    }
+
+
+    /**
+     * Build table source and file
+     *
+     * @throws IOException temp file failure
+     */
+    @Setup
+    public void setup() throws IOException {
+        StringBuilder builder = new StringBuilder("{");
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) {
+                builder.append(',');
+            }
+            builder.append('"').append(i).append("\":{\"id\":").append(i)
+                    .append(",\"name\":\"item-").append(i)
+                    .append("\",\"stack\":").append(i % 99 + 1)
+                    .append(",\"price\":").append(i * 10L)
+                    .append(",\"tradable\":").append(i % 2 == 0).append('}');
+        }
+        data = builder.append('}').toString();
+        path = Files.createTempFile("entity", ".json");
+        Files.write(path, data.getBytes(StandardCharsets.UTF_8));
+    }
+
+
+    /**
+     * Drop table file
+     *
+     * @throws IOException temp file failure
+     */
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(path);
+    }
+
+
+    /**
+     * Tree parse then re-serialize and re-parse every row
+     *
+     * @return Map<String, Item>
+     * @throws Exception malformed table
+     */
+    @Benchmark
+    public Map<String, Item> reparse() throws Exception {
+        JsonNode node = mapper.readTree(data);
+        Map<String, Item> wrapper = new HashMap<>(node.size());
+        Iterator<Map.Entry<String, JsonNode>> elements = node.fields();
+        while (elements.hasNext()) {
+            Map.Entry<String, JsonNode> element = elements.next();
+            wrapper.put(element.getKey(), mapper.readValue(element.getValue().toString(), Item.class));
+        }
+        return wrapper;
+    }
+
+
+    /**
+     * Tree parse then convert rows from the tree
+     *
+     * @return Map<String, Item>
+     */
+    @Benchmark
+    public Map<String, Item> tree() {
+        return JsonNodeExtends.isNode(data).flatMap(node -> JsonNodeExtends.isEntity(node, Item.class)).orElseThrow();
+    }
+
+
+    /**
+     * Stream source straight into rows
+     *
+     * @return Map<String, Item>
+     */
+    @Benchmark
+    public Map<String, Item> stream() {
+        return JsonNodeExtends.isEntity(data, Item.class).orElseThrow();
+    }
+
+
+    /**
+     * Tree parse then convert rows in parallel
+     *
+     * @return Map<String, Item>
+     */
+    @Benchmark
+    public Map<String, Item> parallel() {
+        return JsonNodeExtends.isNode(data).flatMap(node -> JsonNodeExtends.isEntityParallel(node, Item.class)).orElseThrow();
+    }
+
+
+    /**
+     * Map table file and index rows, nothing decoded
+     *
+     * @return JsonEntityTable<Item>
+     */
+    @Benchmark
+    public JsonEntityTable<Item> mapped() {
+        return JsonEntityTable.of(path, Item.class).orElseThrow();
+    }
+}
@@ -0,0 +1,93 @@
+package com.meteorcat.mix.benchmark;
+
+import com.meteorcat.mix.core.utils.JsonNodeExtends;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Network frame parse/serialize through String against byte overloads
+ *
+ * @author MeteorCat
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonFrameBenchmark {
+
+    /**
+     * Incoming frame
+     */
+    private final byte[] frame = ("{\"op\":1001,\"uid\":10086,\"name\":\"meteorcat\",\"level\":42,"
+            + "\"items\":[100001,100002,100003],\"token\":\"0123456789abcdef\"}").getBytes(StandardCharsets.UTF_8);
+
+    /**
+     * Reused outgoing frame buffer
+     */
+    private final ByteBuffer output = ByteBuffer.allocate(4096);
+
+    /**
+     * Outgoing message
+     */
+    private Map<String, Object> message;
+
+
+    /**
+     * Decode outgoing message once
+     */
+    @Setup
+    public void setup() {
+        message = JsonNodeExtends.<String, Object>isMap(frame).orElseThrow();
+    }
+
+
+    /**
+     * Frame decoded to String then parsed
+     *
+     * @return Map<String, Object>
+     */
+    @Benchmark
+    public Map<String, Object> parseString() {
+        return JsonNodeExtends.<String, Object>isMap(new String(frame, StandardCharsets.UTF_8)).orElseThrow();
+    }
+
+
+    /**
+     * Frame parsed from bytes
+     *
+     * @return Map<String, Object>
+     */
+    @Benchmark
+    public Map<String, Object> parseBytes() {
+        return JsonNodeExtends.<String, Object>isMap(frame).orElseThrow();
+    }
+
+
+    /**
+     * Message serialized to String then encoded
+     *
+     * @return byte[]
+     */
+    @Benchmark
+    public byte[] writeString() {
+        return JsonNodeExtends.isMapStr(message).orElseThrow().getBytes(StandardCharsets.UTF_8);
+    }
+
+
+    /**
+     * Message written into reused buffer
+     *
+     * @return ByteBuffer
+     */
+    @Benchmark
+    public ByteBuffer writeBuffer() {
+        output.clear();
+        return JsonNodeExtends.isWrite(message, output).orElseThrow();
+    }
+}
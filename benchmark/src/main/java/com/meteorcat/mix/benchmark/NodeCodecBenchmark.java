@@ -0,0 +1,142 @@
+package com.meteorcat.mix.benchmark;
+
+import com.meteorcat.mix.core.utils.NodeCodec;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Owner snapshot encode/decode, text json against binary codecs, encoded size printed on setup
+ *
+ * @author MeteorCat
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NodeCodecBenchmark {
+
+    /**
+     * Wire format
+     */
+    @Param({"JSON", "SMILE"})
+    public NodeCodec codec;
+
+    /**
+     * Bag items in snapshot
+     */
+    @Param({"10", "200"})
+    public int items;
+
+    /**
+     * Snapshot
+     */
+    private Snapshot snapshot;
+
+    /**
+     * Encoded snapshot
+     */
+    private byte[] encoded;
+
+
+    /**
+     * Player snapshot
+     */
+    public static class Snapshot {
+
+        /**
+         * user id
+         */
+        public long uid;
+
+        /**
+         * user name
+         */
+        public String name;
+
+        /**
+         * user level
+         */
+        public int level;
+
+        /**
+         * bag items
+         */
+        public List<Item> bag = new ArrayList<>();
+    }
+
+
+    /**
+     * Bag item
+     */
+    public static class Item {
+
+        /**
+         * item id
+         */
+        public int id;
+
+        /**
+         * stack count
+         */
+        public int count;
+
+        /**
+         * bound to owner?
+         */
+        public boolean bound;
+
+        /**
+         * expire timestamp
+         */
+        public long expire;
+    }
+
+
+    /**
+     * Build snapshot
+     */
+    @Setup
+    public void setup() {
+        snapshot = new Snapshot();
+        snapshot.uid = 10086L;
+        snapshot.name = "meteorcat";
+        snapshot.level = 42;
+        for (int i = 0; i < items; i++) {
+            Item item = new Item();
+            item.id = 100000 + i;
+            item.count = i % 99 + 1;
+            item.bound = i % 3 == 0;
+            item.expire = 1700000000000L + i;
+            snapshot.bag.add(item);
+        }
+        encoded = codec.isBytes(snapshot).orElseThrow();
+        System.out.printf("%n# %s snapshot of %d items: %d bytes%n", codec, items, encoded.length);
+    }
+
+
+    /**
+     * Encode snapshot
+     *
+     * @return byte[]
+     */
+    @Benchmark
+    public byte[] encode() {
+        return codec.isBytes(snapshot).orElseThrow();
+    }
+
+
+    /**
+     * Decode snapshot
+     *
+     * @return Snapshot
+     */
+    @Benchmark
+    public Snapshot decode() {
+        return codec.isValue(encoded, Snapshot.class).orElseThrow();
+    }
+}
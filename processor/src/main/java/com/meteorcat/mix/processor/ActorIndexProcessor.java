@@ -0,0 +1,439 @@
+package com.meteorcat.mix.processor;
+
+import javax.annotation.processing.*;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * ActorController index generator
+ * <p>
+ * Every {@code @ActorController} class gets a {@code <Controller>$ActorIndex} implementing IActorIndex:
+ * direct-call invokers for {@code @ActorMapping} methods and assignments for {@code @ActorRuntime} fields,
+ * private members go through reflection. Indexes are listed in {@code META-INF/services}.
+ * <p>
+ * Compilation fails on a duplicate opcode inside one controller, or across controllers sharing a runtime class.
+ *
+ * @author MeteorCat
+ */
+@SupportedAnnotationTypes(ActorIndexProcessor.CONTROLLER)
+public class ActorIndexProcessor extends AbstractProcessor {
+
+    /**
+     * ActorController annotation
+     */
+    static final String CONTROLLER = "com.meteorcat.mix.core.actor.ActorController";
+
+    /**
+     * ActorMapping annotation
+     */
+    static final String MAPPING = "com.meteorcat.mix.core.actor.ActorMapping";
+
+    /**
+     * ActorRuntime annotation
+     */
+    static final String RUNTIME = "com.meteorcat.mix.core.actor.ActorRuntime";
+
+    /**
+     * Index interface
+     */
+    static final String INDEX = "com.meteorcat.mix.core.actor.IActorIndex";
+
+    /**
+     * Service file
+     */
+    static final String SERVICE = "META-INF/services/" + INDEX;
+
+    /**
+     * Generated class suffix
+     */
+    static final String SUFFIX = "$ActorIndex";
+
+
+    /**
+     * Generated index binary names
+     */
+    private final Set<String> generated = new TreeSet<>();
+
+    /**
+     * runtime class -> opcode -> controller, across rounds
+     */
+    private final Map<String, Map<Integer, String>> runtimes = new HashMap<>();
+
+
+    /**
+     * Latest source version
+     *
+     * @return SourceVersion
+     */
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+
+    /**
+     * Generate indexes of round, write service file in last round
+     *
+     * @param annotations annotation types
+     * @param round       round environment
+     * @return boolean, never claims annotations
+     */
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment round) {
+        if (round.processingOver()) {
+            writeService();
+            return false;
+        }
+        TypeElement controller = processingEnv.getElementUtils().getTypeElement(CONTROLLER);
+        if (controller == null) {
+            return false;
+        }
+        for (Element element : round.getElementsAnnotatedWith(controller)) {
+            if (element.getKind() == ElementKind.CLASS) {
+                index((TypeElement) element);
+            }
+        }
+        return false;
+    }
+
+
+    /**
+     * Check and generate controller index
+     *
+     * @param type controller
+     */
+    private void index(TypeElement type) {
+        Messager messager = processingEnv.getMessager();
+        for (Element scope = type; scope instanceof TypeElement; scope = scope.getEnclosingElement()) {
+            if (scope.getModifiers().contains(Modifier.PRIVATE)) {
+                messager.printMessage(Diagnostic.Kind.WARNING, "private ActorController is not indexed, reflection is used", type);
+                return;
+            }
+        }
+
+        Map<Integer, ExecutableElement> mappings = check(type);
+        if (mappings != null) {
+            generate(type, mappings);
+        }
+    }
+
+
+    /**
+     * Collect controller opcodes, report clashes inside it and with controllers sharing a runtime class
+     *
+     * @param type controller
+     * @return Map<Integer, ExecutableElement> opcode -> method, null on clash
+     */
+    private Map<Integer, ExecutableElement> check(TypeElement type) {
+        Messager messager = processingEnv.getMessager();
+        Elements elements = processingEnv.getElementUtils();
+        String controller = elements.getBinaryName(type).toString();
+        Map<Integer, ExecutableElement> mappings = new LinkedHashMap<>();
+        boolean failed = false;
+        for (ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+            AnnotationMirror mapping = mirror(method, MAPPING);
+            if (mapping == null) {
+                continue;
+            }
+            int value = (Integer) value(mapping, "value");
+            ExecutableElement clash = mappings.putIfAbsent(value, method);
+            if (clash != null) {
+                messager.printMessage(Diagnostic.Kind.ERROR, String.format("ActorMapping clash by %d with %s", value, clash), method, mapping);
+                failed = true;
+            }
+        }
+
+        AnnotationMirror annotation = null;
+        for (AnnotationMirror mirror : elements.getAllAnnotationMirrors(type)) {
+            if (name(mirror).equals(CONTROLLER)) {
+                annotation = mirror;
+            }
+        }
+        if (annotation != null) {
+            for (Object runtime : (List<?>) value(annotation, "value")) {
+                Map<Integer, String> opcodes = runtimes.computeIfAbsent(runtime.toString(), k -> new HashMap<>());
+                for (Map.Entry<Integer, ExecutableElement> entry : mappings.entrySet()) {
+                    String clash = opcodes.putIfAbsent(entry.getKey(), controller);
+                    if (clash != null && !clash.equals(controller)) {
+                        messager.printMessage(Diagnostic.Kind.ERROR, String.format("ActorMapping clash by %d with %s on runtime %s",
+                                entry.getKey(), clash, runtime), entry.getValue());
+                        failed = true;
+                    }
+                }
+            }
+        }
+
+        return failed ? null : mappings;
+    }
+
+
+    /**
+     * Write controller index source
+     *
+     * @param type     controller
+     * @param mappings opcode -> method
+     */
+    private void generate(TypeElement type, Map<Integer, ExecutableElement> mappings) {
+        Elements elements = processingEnv.getElementUtils();
+        Types types = processingEnv.getTypeUtils();
+        String pkg = elements.getPackageOf(type).getQualifiedName().toString();
+        String binary = elements.getBinaryName(type).toString();
+        String simple = (pkg.isEmpty() ? binary : binary.substring(pkg.length() + 1)) + SUFFIX;
+        String controller = types.erasure(type.asType()).toString();
+
+        StringBuilder source = new StringBuilder();
+        if (!pkg.isEmpty()) {
+            source.append("package ").append(pkg).append(";\n\n");
+        }
+        source.append("import com.meteorcat.mix.core.actor.ActorTuple;\n")
+                .append("import com.meteorcat.mix.core.actor.IActorIndex;\n\n")
+                .append("import java.util.LinkedHashMap;\n")
+                .append("import java.util.Map;\n\n")
+                .append("/**\n * ActorController index of {@link ").append(controller).append("}, generated\n */\n");
+        if (elements.getTypeElement("javax.annotation.processing.Generated") != null) {
+            source.append("@javax.annotation.processing.Generated(\"").append(getClass().getName()).append("\")\n");
+        }
+        source.append("@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n")
+                .append("public final class ").append(simple).append(" implements IActorIndex {\n\n")
+                .append("    @Override\n")
+                .append("    public Class<?> getController() {\n")
+                .append("        return ").append(controller).append(".class;\n")
+                .append("    }\n\n")
+                .append("    @Override\n")
+                .append("    public void inject(Object handler, Object runtime) {\n");
+        for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+            if (mirror(field, RUNTIME) == null) {
+                continue;
+            }
+            Set<Modifier> modifiers = field.getModifiers();
+            String name = field.getSimpleName().toString();
+            if (modifiers.contains(Modifier.PRIVATE) || modifiers.contains(Modifier.FINAL)) {
+                source.append("        IActorIndex.set(handler, ").append(controller).append(".class, \"")
+                        .append(name).append("\", runtime);\n");
+            } else {
+                source.append("        ").append(modifiers.contains(Modifier.STATIC) ? controller : "((" + controller + ") handler)")
+                        .append('.').append(name).append(" = ").append(cast(field.asType())).append("runtime;\n");
+            }
+        }
+        source.append("    }\n\n")
+                .append("    @Override\n")
+                .append("    public Map<Integer, ActorTuple> mapping(Object handler) {\n")
+                .append("        ").append(controller).append(" target = (").append(controller).append(") handler;\n")
+                .append("        Map<Integer, ActorTuple> tuples = new LinkedHashMap<>();\n");
+        for (Map.Entry<Integer, ExecutableElement> entry : mappings.entrySet()) {
+            ExecutableElement method = entry.getValue();
+            StringBuilder lookup = new StringBuilder("IActorIndex.method(").append(controller).append(".class, \"")
+                    .append(method.getSimpleName()).append('"');
+            StringBuilder call = new StringBuilder(method.getModifiers().contains(Modifier.STATIC) ? controller : "target")
+                    .append('.').append(method.getSimpleName()).append('(');
+            List<? extends VariableElement> parameters = method.getParameters();
+            for (int i = 0; i < parameters.size(); i++) {
+                TypeMirror parameter = parameters.get(i).asType();
+                lookup.append(", ").append(types.erasure(parameter)).append(".class");
+                call.append(i == 0 ? "" : ", ").append(cast(parameter)).append("args[").append(i).append(']');
+            }
+            lookup.append(')');
+            call.append(')');
+
+            source.append("        tuples.put(").append(entry.getKey()).append(", new ActorTuple(")
+                    .append(entry.getKey()).append(", handler, ").append(lookup);
+            if (!direct(method)) {
+                source.append("));\n");
+            } else if (method.getReturnType().getKind() == TypeKind.VOID) {
+                source.append(", args -> {\n            ").append(call).append(";\n            return null;\n        }));\n");
+            } else {
+                source.append(", args -> ").append(call).append("));\n");
+            }
+        }
+        source.append("        return tuples;\n")
+                .append("    }\n")
+                .append("}\n");
+
+        try {
+            JavaFileObject file = processingEnv.getFiler().createSourceFile(pkg.isEmpty() ? simple : pkg + "." + simple, type);
+            try (Writer writer = file.openWriter()) {
+                writer.write(source.toString());
+            }
+            generated.add(pkg.isEmpty() ? simple : pkg + "." + simple);
+        } catch (IOException exception) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "ActorIndex write failed: " + exception, type);
+        }
+    }
+
+
+    /**
+     * Merge generated indexes into service file
+     * <p>
+     * An incremental build only regenerates recompiled controllers, so indexes of the existing file are kept
+     * while both the index and its ActorController still exist, and their opcodes join the clash check.
+     */
+    private void writeService() {
+        Filer filer = processingEnv.getFiler();
+        Set<String> existing = new TreeSet<>();
+        try {
+            FileObject file = filer.getResource(StandardLocation.CLASS_OUTPUT, "", SERVICE);
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(file.openInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (!line.trim().isEmpty()) {
+                        existing.add(line.trim());
+                    }
+                }
+            }
+        } catch (IOException exception) {
+            // first build, nothing to merge
+        }
+
+        Set<String> services = new TreeSet<>(generated);
+        for (String service : existing) {
+            if (services.contains(service)) {
+                continue;
+            }
+            TypeElement controller = controller(service);
+            if (controller != null && check(controller) != null) {
+                services.add(service);
+            }
+        }
+        if (services.equals(existing)) {
+            return;
+        }
+
+        try {
+            FileObject file = filer.createResource(StandardLocation.CLASS_OUTPUT, "", SERVICE);
+            try (Writer writer = new OutputStreamWriter(file.openOutputStream(), StandardCharsets.UTF_8)) {
+                for (String service : services) {
+                    writer.write(service);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException exception) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "ActorIndex service write failed: " + exception);
+        }
+    }
+
+
+    /**
+     * ActorController of an index listed by a previous build
+     *
+     * @param service index class name
+     * @return TypeElement, null when the index or its controller is gone or no longer an ActorController
+     */
+    private TypeElement controller(String service) {
+        Elements elements = processingEnv.getElementUtils();
+        if (!service.endsWith(SUFFIX) || elements.getTypeElement(service) == null) {
+            return null;
+        }
+        String binary = service.substring(0, service.length() - SUFFIX.length());
+        TypeElement controller = elements.getTypeElement(binary.replace('$', '.'));
+        if (controller == null) {
+            return null;
+        }
+        for (AnnotationMirror mirror : elements.getAllAnnotationMirrors(controller)) {
+            if (name(mirror).equals(CONTROLLER)) {
+                return controller;
+            }
+        }
+        return null;
+    }
+
+
+    /**
+     * Method callable from generated index: not private and only throws Exception or Error
+     *
+     * @param method ActorMapping method
+     * @return boolean
+     */
+    private boolean direct(ExecutableElement method) {
+        if (method.getModifiers().contains(Modifier.PRIVATE)) {
+            return false;
+        }
+        Elements elements = processingEnv.getElementUtils();
+        Types types = processingEnv.getTypeUtils();
+        TypeMirror exception = elements.getTypeElement("java.lang.Exception").asType();
+        TypeMirror error = elements.getTypeElement("java.lang.Error").asType();
+        for (TypeMirror thrown : method.getThrownTypes()) {
+            if (!types.isAssignable(thrown, exception) && !types.isAssignable(thrown, error)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    /**
+     * Cast expression prefix
+     *
+     * @param type target type
+     * @return String
+     */
+    private String cast(TypeMirror type) {
+        return "(" + processingEnv.getTypeUtils().erasure(type) + ") ";
+    }
+
+
+    /**
+     * Annotation on element
+     *
+     * @param element annotated element
+     * @param name    annotation name
+     * @return AnnotationMirror, null if missing
+     */
+    private static AnnotationMirror mirror(Element element, String name) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            if (name(mirror).equals(name)) {
+                return mirror;
+            }
+        }
+        return null;
+    }
+
+
+    /**
+     * Annotation type name
+     *
+     * @param mirror annotation
+     * @return String
+     */
+    private static String name(AnnotationMirror mirror) {
+        return ((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().toString();
+    }
+
+
+    /**
+     * Annotation attribute with defaults
+     *
+     * @param mirror annotation
+     * @param name   attribute
+     * @return Object, List of AnnotationValue for arrays
+     */
+    private Object value(AnnotationMirror mirror, String name) {
+        Map<? extends ExecutableElement, ? extends AnnotationValue> values =
+                processingEnv.getElementUtils().getElementValuesWithDefaults(mirror);
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : values.entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals(name)) {
+                Object value = entry.getValue().getValue();
+                if (value instanceof List) {
+                    List<Object> list = new ArrayList<>();
+                    for (Object item : (List<?>) value) {
+                        list.add(((AnnotationValue) item).getValue());
+                    }
+                    return list;
+                }
+                return value;
+            }
+        }
+        return null;
+    }
+}
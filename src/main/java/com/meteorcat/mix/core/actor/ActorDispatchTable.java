@@ -0,0 +1,204 @@
+package com.meteorcat.mix.core.actor;
+
+import java.util.*;
+
+/**
+ * Immutable opcode to ActorTuple table
+ * <p>
+ * The densest opcode window (at least half filled) is indexed directly by {@code opcode - base},
+ * opcodes outside it go to a primitive open-addressing table. Lookups never box or allocate.
+ *
+ * @author MeteorCat
+ */
+public final class ActorDispatchTable {
+
+    /**
+     * Empty table
+     */
+    private static final ActorDispatchTable EMPTY = new ActorDispatchTable(0, new ActorTuple[0], new int[0], new ActorTuple[0], 0);
+
+    /**
+     * Golden ratio multiplier
+     */
+    private static final int SPREAD = 0x9E3779B9;
+
+
+    /**
+     * First opcode of dense window
+     */
+    private final int base;
+
+    /**
+     * Dense window, null slots are missing opcodes
+     */
+    private final ActorTuple[] dense;
+
+    /**
+     * Sparse opcodes, slot is used when value is not null
+     */
+    private final int[] keys;
+
+    /**
+     * Sparse tuples
+     */
+    private final ActorTuple[] values;
+
+    /**
+     * Tuple count
+     */
+    private final int size;
+
+
+    /**
+     * Construct Method
+     *
+     * @param base   first opcode of dense window
+     * @param dense  dense window
+     * @param keys   sparse opcodes
+     * @param values sparse tuples
+     * @param size   tuple count
+     */
+    private ActorDispatchTable(int base, ActorTuple[] dense, int[] keys, ActorTuple[] values, int size) {
+        this.base = base;
+        this.dense = dense;
+        this.keys = keys;
+        this.values = values;
+        this.size = size;
+    }
+
+
+    /**
+     * Build table from scan result
+     *
+     * @param tuples opcode to tuple, such as ActorSearcher.searchMapping
+     * @return ActorDispatchTable
+     */
+    public static ActorDispatchTable of(Map<Integer, ActorTuple> tuples) {
+        if (tuples == null || tuples.isEmpty()) {
+            return EMPTY;
+        }
+        int[] opcodes = new int[tuples.size()];
+        int n = 0;
+        for (Integer opcode : tuples.keySet()) {
+            opcodes[n++] = opcode;
+        }
+        Arrays.sort(opcodes);
+
+        // widest window [from, to] holding at least half of its range
+        int from = 0, to = -1;
+        for (int i = 0; i < n && n - i > to - from + 1; i++) {
+            for (int j = n - 1; j >= i && j - i + 1 > to - from + 1; j--) {
+                if ((long) (j - i + 1) * 2 >= (long) opcodes[j] - opcodes[i] + 1) {
+                    from = i;
+                    to = j;
+                    break;
+                }
+            }
+        }
+
+        int base = opcodes[from];
+        ActorTuple[] dense = new ActorTuple[opcodes[to] - base + 1];
+        for (int i = from; i <= to; i++) {
+            dense[opcodes[i] - base] = tuples.get(opcodes[i]);
+        }
+
+        int sparse = n - (to - from + 1);
+        int capacity = sparse == 0 ? 0 : Integer.highestOneBit(sparse * 2 - 1) << 1;
+        int[] keys = new int[capacity];
+        ActorTuple[] values = new ActorTuple[capacity];
+        for (int i = 0; i < n; i++) {
+            if (i >= from && i <= to) {
+                continue;
+            }
+            int slot = hash(opcodes[i], capacity);
+            while (values[slot] != null) {
+                slot = (slot + 1) & (capacity - 1);
+            }
+            keys[slot] = opcodes[i];
+            values[slot] = tuples.get(opcodes[i]);
+        }
+        return new ActorDispatchTable(base, dense, keys, values, n);
+    }
+
+
+    /**
+     * get actor tuple
+     *
+     * @param opcode actor value
+     * @return ActorTuple, null if missing
+     */
+    public ActorTuple get(int opcode) {
+        int index = opcode - base;
+        if (index >= 0 && index < dense.length) {
+            return dense[index];
+        }
+        int capacity = values.length;
+        if (capacity == 0) {
+            return null;
+        }
+        int slot = hash(opcode, capacity);
+        ActorTuple tuple;
+        while ((tuple = values[slot]) != null) {
+            if (keys[slot] == opcode) {
+                return tuple;
+            }
+            slot = (slot + 1) & (capacity - 1);
+        }
+        return null;
+    }
+
+
+    /**
+     * actor value exists?
+     *
+     * @param opcode actor value
+     * @return boolean
+     */
+    public boolean containsKey(int opcode) {
+        return get(opcode) != null;
+    }
+
+
+    /**
+     * Tuple count
+     *
+     * @return int
+     */
+    public int size() {
+        return size;
+    }
+
+
+    /**
+     * Copy tuples ordered by opcode
+     *
+     * @return Map<Integer, ActorTuple>
+     */
+    public Map<Integer, ActorTuple> toMap() {
+        Map<Integer, ActorTuple> tuples = new TreeMap<>();
+        for (int i = 0; i < dense.length; i++) {
+            if (dense[i] != null) {
+                tuples.put(base + i, dense[i]);
+            }
+        }
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) {
+                tuples.put(keys[i], values[i]);
+            }
+        }
+        return new LinkedHashMap<>(tuples);
+    }
+
+
+    /**
+     * Sparse slot of opcode
+     *
+     * @param opcode   actor value
+     * @param capacity power of two table size
+     * @return int
+     */
+    private static int hash(int opcode, int capacity) {
+        int hash = opcode * SPREAD;
+        return (hash ^ (hash >>> 16)) & (capacity - 1);
+    }
+}
@@ -0,0 +1,482 @@
+package com.meteorcat.mix.core.actor;
+
+import com.meteorcat.mix.core.event.EventMailbox;
+import com.meteorcat.mix.core.event.EventOverflow;
+import com.meteorcat.mix.core.event.EventTimingWheel;
+import com.meteorcat.mix.core.event.IEventTimer;
+
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+/**
+ * Actor dispatcher following ActorMapping execution hints
+ * <p>
+ * The policy is resolved into ActorTuple when it is built, each call only branches on its final fields:
+ * INLINE runs on the calling thread, OFFLOAD on the offload executor, serial calls of one owner go through
+ * that owner's {@link EventMailbox}. A call running longer than its timeout is reported, offloaded calls
+ * are interrupted as well. Failures go to the error handler, or propagate to the running thread without one;
+ * a serial call drained by another caller's thread goes to that thread's uncaught exception handler instead,
+ * so a caller only ever sees its own failure.
+ *
+ * @author MeteorCat
+ */
+public class ActorDispatcher<_Owner> {
+
+    /**
+     * Offload executor
+     */
+    private final Executor offload;
+
+    /**
+     * Timeout timer
+     */
+    private final IEventTimer timer;
+
+    /**
+     * Timing wheel created by this dispatcher and stopped by {@link #shutdown()}, null when none
+     */
+    private final EventTimingWheel wheel;
+
+    /**
+     * Owner mailboxes
+     */
+    private final Map<_Owner, EventMailbox> mailboxes = new ConcurrentHashMap<>();
+
+    /**
+     * Callbacks per mailbox drain
+     */
+    private volatile int throughput = EventMailbox.DEFAULT_THROUGHPUT;
+
+    /**
+     * Overrun handler, receives tuple and the thread running it, nullable
+     */
+    private volatile BiConsumer<ActorTuple, Thread> overrun = null;
+
+    /**
+     * Error handler, receives tuple and its failure, nullable
+     */
+    private volatile BiConsumer<ActorTuple, Throwable> error = null;
+
+
+    /**
+     * Construct Method, timeouts tracked by the daemon timing wheel shared by every dispatcher
+     *
+     * @param offload offload executor
+     */
+    public ActorDispatcher(Executor offload) {
+        this(offload, SharedWheel.WHEEL, null);
+    }
+
+
+    /**
+     * Construct Method, timeouts tracked by a timing wheel of this dispatcher
+     *
+     * @param offload   offload executor
+     * @param tick      wheel tick duration
+     * @param unit      wheel tick timeunit
+     * @param wheelSize wheel bucket count
+     */
+    public ActorDispatcher(Executor offload, long tick, TimeUnit unit, int wheelSize) {
+        this(offload, null, new EventTimingWheel(Runnable::run, tick, unit, wheelSize));
+    }
+
+
+    /**
+     * Construct Method, the caller keeps owning the timer
+     *
+     * @param offload offload executor
+     * @param timer   timeout timer
+     */
+    public ActorDispatcher(Executor offload, IEventTimer timer) {
+        this(offload, timer, null);
+    }
+
+
+    /**
+     * Construct Method
+     *
+     * @param offload offload executor
+     * @param timer   timeout timer, null uses the owned wheel
+     * @param wheel   timing wheel owned by this dispatcher, nullable
+     */
+    private ActorDispatcher(Executor offload, IEventTimer timer, EventTimingWheel wheel) {
+        this.offload = offload;
+        this.timer = timer != null ? timer : wheel;
+        this.wheel = wheel;
+    }
+
+
+    /**
+     * Set callbacks per mailbox drain, applies to mailboxes created afterwards
+     *
+     * @param throughput callbacks per drain
+     */
+    public void setThroughput(int throughput) {
+        this.throughput = Math.max(1, throughput);
+    }
+
+
+    /**
+     * Set overrun handler, overruns are not reported without one
+     *
+     * @param overrun receives tuple and the thread running it
+     */
+    public void setOverrunHandler(BiConsumer<ActorTuple, Thread> overrun) {
+        this.overrun = overrun;
+    }
+
+
+    /**
+     * Set error handler, without one a failure propagates to the thread running the call
+     * <p>
+     * Serial calls refused by a retired owner mailbox are reported with a RejectedExecutionException.
+     *
+     * @param error receives tuple and its failure
+     */
+    public void setErrorHandler(BiConsumer<ActorTuple, Throwable> error) {
+        this.error = error;
+    }
+
+
+    /**
+     * Stop the timing wheel this dispatcher created, a shared or caller timer keeps running
+     */
+    public void shutdown() {
+        if (wheel != null) {
+            wheel.shutdown();
+        }
+    }
+
+
+    /**
+     * Dispatch actor entry
+     *
+     * @param owner Event owner, key of serial calls
+     * @param tuple actor tuple
+     * @param args  entry arguments
+     */
+    public void dispatch(_Owner owner, ActorTuple tuple, Object... args) {
+        boolean inline = tuple.getExecution() == ActorExecution.INLINE;
+        if (tuple.isSerial()) {
+            Call call = new Call(tuple, args);
+            EventMailbox box = mailbox(owner);
+            if (inline) {
+                call.caller = Thread.currentThread();
+                try {
+                    box.invoke(call);
+                } finally {
+                    call.caller = null;
+                }
+                call.rethrow();
+            } else {
+                box.execute(call);
+            }
+        } else if (inline) {
+            invoke(tuple, args);
+        } else {
+            offload.execute(() -> invoke(tuple, args));
+        }
+    }
+
+
+    /**
+     * Queued serial calls of owner
+     *
+     * @param owner Event owner
+     * @return int
+     */
+    public int getDepth(_Owner owner) {
+        EventMailbox box = mailboxes.get(owner);
+        return box == null ? 0 : box.size();
+    }
+
+
+    /**
+     * Retire owner mailbox, queued calls still run and it is unlinked once drained
+     *
+     * @param owner Event owner
+     */
+    public void remove(_Owner owner) {
+        EventMailbox box = mailboxes.get(owner);
+        if (box != null) {
+            box.retire(() -> mailboxes.remove(owner, box));
+        }
+    }
+
+
+    /**
+     * Owner mailbox
+     *
+     * @param owner Event owner
+     * @return EventMailbox
+     */
+    private EventMailbox mailbox(_Owner owner) {
+        for (; ; ) {
+            EventMailbox box = mailboxes.get(owner);
+            if (box == null) {
+                box = mailboxes.computeIfAbsent(owner, k -> new EventMailbox(offload, throughput, Integer.MAX_VALUE,
+                        EventOverflow.REJECT, 0L, this::refused, this::failed));
+            }
+            if (!box.isRetired()) {
+                return box;
+            }
+            // retired and not unlinked yet, replace it for the live owner
+            mailboxes.remove(owner, box);
+        }
+    }
+
+
+    /**
+     * Serial call refused by a retired mailbox
+     *
+     * @param runnable refused call
+     */
+    private void refused(Runnable runnable) {
+        report(((Call) runnable).tuple, new RejectedExecutionException("serial call refused by a retired owner mailbox"));
+    }
+
+
+    /**
+     * Serial call failed on a thread draining it for another caller
+     *
+     * @param runnable failed call
+     * @param failure  its failure
+     */
+    private void failed(Runnable runnable, Throwable failure) {
+        report(((Call) runnable).tuple, failure);
+    }
+
+
+    /**
+     * Report failure to error handler, or the current thread's uncaught exception handler without one
+     *
+     * @param tuple   actor tuple
+     * @param failure failure
+     */
+    private void report(ActorTuple tuple, Throwable failure) {
+        BiConsumer<ActorTuple, Throwable> handler = error;
+        if (handler != null) {
+            handler.accept(tuple, failure);
+            return;
+        }
+        Thread thread = Thread.currentThread();
+        thread.getUncaughtExceptionHandler().uncaughtException(thread, failure);
+    }
+
+
+    /**
+     * Invoke entry, under timeout watch when it has one
+     *
+     * @param tuple actor tuple
+     * @param args  entry arguments
+     */
+    private void invoke(ActorTuple tuple, Object[] args) {
+        if (tuple.getTimeout() > 0) {
+            watch(tuple, args);
+        } else {
+            run(tuple, args);
+        }
+    }
+
+
+    /**
+     * Invoke entry
+     *
+     * @param tuple actor tuple
+     * @param args  entry arguments
+     */
+    private void run(ActorTuple tuple, Object[] args) {
+        try {
+            tuple.invoke(args);
+        } catch (Exception exception) {
+            BiConsumer<ActorTuple, Throwable> handler = error;
+            if (handler != null) {
+                handler.accept(tuple, exception);
+            } else if (exception instanceof RuntimeException) {
+                throw (RuntimeException) exception;
+            } else {
+                throw new CompletionException(exception);
+            }
+        }
+    }
+
+
+    /**
+     * Invoke entry under timeout watch
+     *
+     * @param tuple actor tuple
+     * @param args  entry arguments
+     */
+    private void watch(ActorTuple tuple, Object[] args) {
+        Watch watch = new Watch(tuple, Thread.currentThread(), tuple.getExecution() == ActorExecution.OFFLOAD);
+        ScheduledFuture<?> future = timer.schedule(watch, tuple.getTimeout(), TimeUnit.MILLISECONDS);
+        try {
+            run(tuple, args);
+        } finally {
+            future.cancel(false);
+            watch.finish();
+        }
+    }
+
+
+    /**
+     * Default timing wheel, started on first use and shared by every dispatcher
+     */
+    private static final class SharedWheel {
+
+        /**
+         * shared wheel, daemon ticker
+         */
+        static final EventTimingWheel WHEEL = new EventTimingWheel(Runnable::run);
+    }
+
+
+    /**
+     * Serial call, keeps the failure of an inline call for its own caller
+     */
+    private final class Call implements Runnable {
+
+        /**
+         * actor tuple
+         */
+        private final ActorTuple tuple;
+
+        /**
+         * entry arguments
+         */
+        private final Object[] args;
+
+        /**
+         * dispatching thread while it drains inline, null otherwise
+         */
+        private volatile Thread caller = null;
+
+        /**
+         * failure of the inline call
+         */
+        private Throwable failure = null;
+
+
+        /**
+         * Construct Method
+         *
+         * @param tuple actor tuple
+         * @param args  entry arguments
+         */
+        Call(ActorTuple tuple, Object[] args) {
+            this.tuple = tuple;
+            this.args = args;
+        }
+
+
+        /**
+         * Invoke entry, a failure on its own caller's inline drain is kept for {@link #rethrow()}
+         */
+        @Override
+        public void run() {
+            try {
+                invoke(tuple, args);
+            } catch (RuntimeException | Error throwable) {
+                if (caller != Thread.currentThread()) {
+                    throw throwable;
+                }
+                failure = throwable;
+            }
+        }
+
+
+        /**
+         * Rethrow failure of the inline call to its caller
+         */
+        void rethrow() {
+            if (failure instanceof RuntimeException) {
+                throw (RuntimeException) failure;
+            }
+            if (failure instanceof Error) {
+                throw (Error) failure;
+            }
+        }
+    }
+
+
+    /**
+     * Timeout watch of one call
+     */
+    private final class Watch implements Runnable {
+
+        /**
+         * actor tuple
+         */
+        private final ActorTuple tuple;
+
+        /**
+         * thread running call
+         */
+        private final Thread thread;
+
+        /**
+         * interrupt on overrun?
+         */
+        private final boolean interrupt;
+
+        /**
+         * call finished?
+         */
+        private boolean finished = false;
+
+        /**
+         * thread interrupted by watch?
+         */
+        private boolean interrupted = false;
+
+
+        /**
+         * Construct Method
+         *
+         * @param tuple     actor tuple
+         * @param thread    thread running call
+         * @param interrupt interrupt on overrun?
+         */
+        Watch(ActorTuple tuple, Thread thread, boolean interrupt) {
+            this.tuple = tuple;
+            this.thread = thread;
+            this.interrupt = interrupt;
+        }
+
+
+        /**
+         * Timeout fired
+         */
+        @Override
+        public synchronized void run() {
+            if (finished) {
+                return;
+            }
+            if (interrupt) {
+                interrupted = true;
+                thread.interrupt();
+            }
+            BiConsumer<ActorTuple, Thread> handler = overrun;
+            if (handler != null) {
+                handler.accept(tuple, thread);
+            }
+        }
+
+
+        /**
+         * Call finished, clear interrupt of the watch so the pool thread is reusable
+         */
+        synchronized void finish() {
+            finished = true;
+            if (interrupted) {
+                Thread.interrupted();
+            }
+        }
+    }
+}
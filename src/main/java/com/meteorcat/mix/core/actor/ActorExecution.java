@@ -0,0 +1,18 @@
+package com.meteorcat.mix.core.actor;
+
+/**
+ * Actor entry execution
+ * @author MeteorCat
+ */
+public enum ActorExecution {
+
+    /**
+     * Run on the dispatching thread, for short in-memory updates
+     */
+    INLINE,
+
+    /**
+     * Run on the dispatcher offload executor, for slow or blocking work
+     */
+    OFFLOAD
+}
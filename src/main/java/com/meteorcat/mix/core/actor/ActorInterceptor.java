@@ -0,0 +1,31 @@
+package com.meteorcat.mix.core.actor;
+
+/**
+ * Cross-cutting check around actor entries, such as auth gating, rate limiting or tracing
+ *
+ * @author MeteorCat
+ */
+public interface ActorInterceptor {
+
+    /**
+     * Applies to actor entry? Asked once per tuple when the chain is built
+     *
+     * @param tuple actor tuple
+     * @return boolean
+     */
+    default boolean supports(ActorTuple tuple) {
+        return true;
+    }
+
+
+    /**
+     * Intercept one call, skip next.invoke(args) to reject it
+     *
+     * @param tuple actor tuple
+     * @param args  entry arguments
+     * @param next  rest of the chain and the entry
+     * @return Object
+     * @throws Exception rejection or handler failure
+     */
+    Object intercept(ActorTuple tuple, Object[] args, ActorInvoker next) throws Exception;
+}
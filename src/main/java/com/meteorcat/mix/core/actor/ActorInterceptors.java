@@ -0,0 +1,125 @@
+package com.meteorcat.mix.core.actor;
+
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Interceptor chains of actor entries
+ * <p>
+ * The chain of each tuple is linked once from the interceptors that {@link ActorInterceptor#supports(ActorTuple)} it,
+ * a call walks final links with the caller's argument array and allocates nothing. Tuples no interceptor applies to
+ * are returned unchanged.
+ *
+ * @author MeteorCat
+ */
+public class ActorInterceptors {
+
+    /**
+     * Interceptors, outermost first
+     */
+    private final List<ActorInterceptor> interceptors = new CopyOnWriteArrayList<>();
+
+
+    /**
+     * Append interceptor, applies to tuples chained afterwards
+     *
+     * @param interceptor runs inside every interceptor added before it
+     */
+    public void addInterceptor(ActorInterceptor interceptor) {
+        interceptors.add(Objects.requireNonNull(interceptor));
+    }
+
+
+    /**
+     * Interceptors
+     *
+     * @return List<ActorInterceptor>, read only
+     */
+    public List<ActorInterceptor> getInterceptors() {
+        return Collections.unmodifiableList(interceptors);
+    }
+
+
+    /**
+     * Chain tuple
+     *
+     * @param tuple actor tuple
+     * @return ActorTuple, intercepted copy or tuple itself if nothing applies
+     */
+    public ActorTuple intercept(ActorTuple tuple) {
+        ActorInvoker next = tuple.getInvoker();
+        ActorInterceptor[] chain = interceptors.toArray(new ActorInterceptor[0]);
+        boolean applied = false;
+        for (int i = chain.length - 1; i >= 0; i--) {
+            if (chain[i].supports(tuple)) {
+                next = new Link(chain[i], tuple, next);
+                applied = true;
+            }
+        }
+        return applied ? tuple.withInvoker(next) : tuple;
+    }
+
+
+    /**
+     * Chain tuples, such as ActorSearcher.searchMapping
+     *
+     * @param tuples opcode to tuple
+     * @return Map<Integer, ActorTuple>
+     */
+    public Map<Integer, ActorTuple> intercept(Map<Integer, ActorTuple> tuples) {
+        Map<Integer, ActorTuple> intercepted = new LinkedHashMap<>(tuples.size() * 2);
+        for (Map.Entry<Integer, ActorTuple> entry : tuples.entrySet()) {
+            intercepted.put(entry.getKey(), intercept(entry.getValue()));
+        }
+        return intercepted;
+    }
+
+
+    /**
+     * One link of a chain
+     */
+    static final class Link implements ActorInvoker {
+
+        /**
+         * interceptor
+         */
+        private final ActorInterceptor interceptor;
+
+        /**
+         * source tuple
+         */
+        private final ActorTuple tuple;
+
+        /**
+         * rest of the chain
+         */
+        private final ActorInvoker next;
+
+
+        /**
+         * Construct Method
+         *
+         * @param interceptor interceptor
+         * @param tuple       source tuple
+         * @param next        rest of the chain
+         */
+        Link(ActorInterceptor interceptor, ActorTuple tuple, ActorInvoker next) {
+            this.interceptor = interceptor;
+            this.tuple = tuple;
+            this.next = next;
+        }
+
+
+        /**
+         * Run interceptor
+         *
+         * @param args entry arguments
+         * @return Object
+         * @throws Exception rejection or handler failure
+         */
+        @Override
+        public Object invoke(Object... args) throws Exception {
+            return interceptor.intercept(tuple, args, next);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.meteorcat.mix.core.actor;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * Pre-bound actor entry invoker
+ * <p>
+ * Handler exceptions are thrown as is, not wrapped in InvocationTargetException.
+ *
+ * @author MeteorCat
+ */
+@FunctionalInterface
+public interface ActorInvoker {
+
+
+    /**
+     * Invoke actor entry
+     *
+     * @param args entry arguments
+     * @return Object, null for void entry
+     * @throws Exception handler failure
+     */
+    Object invoke(Object... args) throws Exception;
+
+
+    /**
+     * Build invoker bound to instance: LambdaMetafactory class up to 4 arguments, then spread MethodHandle,
+     * then Method.invoke
+     *
+     * @param instance actor instance, ignored by static entry
+     * @param method   actor entry
+     * @return ActorInvoker
+     */
+    static ActorInvoker of(Object instance, Method method) {
+        ActorInvoker compiled = LambdaInvoker.of(instance, method);
+        if (compiled != null) {
+            return compiled;
+        }
+        try {
+            method.setAccessible(true);
+            MethodHandle handle = MethodHandles.lookup().unreflect(method);
+            if (!Modifier.isStatic(method.getModifiers())) {
+                handle = handle.bindTo(instance);
+            }
+            handle = handle.asSpreader(Object[].class, method.getParameterCount())
+                    .asType(MethodType.methodType(Object.class, Object[].class));
+            return new MethodHandleInvoker(handle);
+        } catch (IllegalAccessException | RuntimeException exception) {
+            return args -> {
+                try {
+                    return method.invoke(instance, args);
+                } catch (InvocationTargetException e) {
+                    throw MethodHandleInvoker.rethrow(e.getCause());
+                }
+            };
+        }
+    }
+
+}
@@ -18,4 +18,25 @@ public @interface ActorMapping {
      */
     int value();
 
+
+    /**
+     * Actor entry execution
+     * @return ActorExecution
+     */
+    ActorExecution execution() default ActorExecution.INLINE;
+
+
+    /**
+     * Serialize calls of the same owner
+     * @return boolean
+     */
+    boolean serial() default false;
+
+
+    /**
+     * Max execution time in milliseconds, 0 is unbounded
+     * @return long
+     */
+    long timeout() default 0L;
+
 }
@@ -0,0 +1,199 @@
+package com.meteorcat.mix.core.actor;
+
+import com.meteorcat.mix.core.metrics.LatencyHistogram;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics of one ActorMapping opcode
+ *
+ * @author MeteorCat
+ */
+public class ActorMetric {
+
+    /**
+     * Invocations
+     */
+    private final LongAdder count = new LongAdder();
+
+    /**
+     * Failed invocations
+     */
+    private final LongAdder errors = new LongAdder();
+
+    /**
+     * Sampled execution time
+     */
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+
+    /**
+     * Wrap invoker
+     *
+     * @param invoker actor entry invoker
+     * @param mask    sampling mask, 2^n - 1
+     * @return ActorInvoker
+     */
+    ActorInvoker timed(ActorInvoker invoker, int mask) {
+        return new Timed(this, invoker, mask);
+    }
+
+
+    /**
+     * Copy current state
+     *
+     * @return Snapshot
+     */
+    public Snapshot snapshot() {
+        return new Snapshot(count.sum(), errors.sum(), latency.snapshot());
+    }
+
+
+    /**
+     * Counting invoker
+     */
+    static final class Timed implements ActorInvoker {
+
+        /**
+         * opcode metric
+         */
+        private final ActorMetric metric;
+
+        /**
+         * actor entry invoker
+         */
+        private final ActorInvoker invoker;
+
+        /**
+         * sampling mask, 2^n - 1
+         */
+        private final int mask;
+
+
+        /**
+         * Construct Method
+         *
+         * @param metric  opcode metric
+         * @param invoker actor entry invoker
+         * @param mask    sampling mask, 2^n - 1
+         */
+        Timed(ActorMetric metric, ActorInvoker invoker, int mask) {
+            this.metric = metric;
+            this.invoker = invoker;
+            this.mask = mask;
+        }
+
+
+        /**
+         * Count, time one in (mask + 1) calls, invoke
+         *
+         * @param args entry arguments
+         * @return Object
+         * @throws Exception handler failure
+         */
+        @Override
+        public Object invoke(Object... args) throws Exception {
+            metric.count.increment();
+            if (mask != 0 && (ThreadLocalRandom.current().nextInt() & mask) != 0) {
+                try {
+                    return invoker.invoke(args);
+                } catch (Exception exception) {
+                    metric.errors.increment();
+                    throw exception;
+                }
+            }
+            long start = System.nanoTime();
+            try {
+                return invoker.invoke(args);
+            } catch (Exception exception) {
+                metric.errors.increment();
+                throw exception;
+            } finally {
+                metric.latency.record(System.nanoTime() - start);
+            }
+        }
+    }
+
+
+    /**
+     * Opcode metric snapshot
+     */
+    public static class Snapshot {
+
+        /**
+         * Invocations
+         */
+        private final long count;
+
+        /**
+         * Failed invocations
+         */
+        private final long errors;
+
+        /**
+         * Sampled execution time (nanoseconds)
+         */
+        private final LatencyHistogram.Snapshot latency;
+
+
+        /**
+         * Construct Method
+         *
+         * @param count   invocations
+         * @param errors  failed invocations
+         * @param latency sampled execution time
+         */
+        Snapshot(long count, long errors, LatencyHistogram.Snapshot latency) {
+            this.count = count;
+            this.errors = errors;
+            this.latency = latency;
+        }
+
+        /**
+         * Invocations
+         *
+         * @return long
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * Failed invocations
+         *
+         * @return long
+         */
+        public long getErrors() {
+            return errors;
+        }
+
+        /**
+         * Sampled execution time (nanoseconds)
+         *
+         * @return LatencyHistogram.Snapshot
+         */
+        public LatencyHistogram.Snapshot getLatency() {
+            return latency;
+        }
+
+        /**
+         * Estimated total execution time: sampled mean times invocations (nanoseconds)
+         *
+         * @return long
+         */
+        public long getTotalTime() {
+            return (long) (latency.getMean() * count);
+        }
+
+        /**
+         * inherit to string
+         *
+         * @return String
+         */
+        @Override
+        public String toString() {
+            return String.format("count=%d errors=%d total=%dns %s", count, errors, getTotalTime(), latency);
+        }
+    }
+}
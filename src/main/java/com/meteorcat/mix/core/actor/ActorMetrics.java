@@ -0,0 +1,115 @@
+package com.meteorcat.mix.core.actor;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ActorMapping dispatch metrics, keyed by opcode
+ * <p>
+ * Instrumenting swaps the tuple invoker once at registration: invocations and errors are striped counters,
+ * execution time goes into a histogram for one in {@link #setSampling(int)} calls. Tuples never instrumented
+ * pay nothing.
+ *
+ * @author MeteorCat
+ */
+public class ActorMetrics {
+
+    /**
+     * Default timed calls, one in
+     */
+    public static final int DEFAULT_SAMPLING = 64;
+
+    /**
+     * Opcode metrics
+     */
+    private final Map<Integer, ActorMetric> metrics = new ConcurrentHashMap<>();
+
+    /**
+     * Sampling mask, 2^n - 1
+     */
+    private volatile int mask = DEFAULT_SAMPLING - 1;
+
+
+    /**
+     * Set timed calls, one in sampling, rounded up to a power of two, applies to tuples instrumented afterwards
+     *
+     * @param sampling 1 times every call
+     */
+    public void setSampling(int sampling) {
+        int rate = sampling <= 1 ? 1 : Integer.highestOneBit(sampling - 1) << 1;
+        this.mask = rate - 1;
+    }
+
+
+    /**
+     * get or create opcode metric
+     *
+     * @param opcode actor value
+     * @return ActorMetric
+     */
+    public ActorMetric metric(int opcode) {
+        ActorMetric metric = metrics.get(opcode);
+        return metric != null ? metric : metrics.computeIfAbsent(opcode, k -> new ActorMetric());
+    }
+
+
+    /**
+     * Instrument tuple
+     *
+     * @param tuple actor tuple
+     * @return ActorTuple, counting copy
+     */
+    public ActorTuple instrument(ActorTuple tuple) {
+        return tuple.withInvoker(metric(tuple.getValue()).timed(tuple.getInvoker(), mask));
+    }
+
+
+    /**
+     * Instrument tuples, such as ActorSearcher.searchMapping
+     *
+     * @param tuples opcode to tuple
+     * @return Map<Integer, ActorTuple>, counting copies
+     */
+    public Map<Integer, ActorTuple> instrument(Map<Integer, ActorTuple> tuples) {
+        Map<Integer, ActorTuple> instrumented = new LinkedHashMap<>(tuples.size() * 2);
+        for (Map.Entry<Integer, ActorTuple> entry : tuples.entrySet()) {
+            instrumented.put(entry.getKey(), instrument(entry.getValue()));
+        }
+        return instrumented;
+    }
+
+
+    /**
+     * Copy every opcode metric
+     *
+     * @return Map<Integer, ActorMetric.Snapshot>
+     */
+    public Map<Integer, ActorMetric.Snapshot> snapshot() {
+        Map<Integer, ActorMetric.Snapshot> snapshots = new HashMap<>(metrics.size() * 2);
+        for (Map.Entry<Integer, ActorMetric> entry : metrics.entrySet()) {
+            snapshots.put(entry.getKey(), entry.getValue().snapshot());
+        }
+        return snapshots;
+    }
+
+
+    /**
+     * Hottest opcodes by estimated total execution time
+     *
+     * @param limit max opcodes
+     * @return List<Map.Entry<Integer, ActorMetric.Snapshot>>, hottest first
+     */
+    public List<Map.Entry<Integer, ActorMetric.Snapshot>> top(int limit) {
+        List<Map.Entry<Integer, ActorMetric.Snapshot>> entries = new ArrayList<>(snapshot().entrySet());
+        entries.sort((a, b) -> Long.compare(b.getValue().getTotalTime(), a.getValue().getTotalTime()));
+        return entries.subList(0, Math.min(Math.max(0, limit), entries.size()));
+    }
+
+
+    /**
+     * Drop every opcode metric, instrumented tuples keep counting into the dropped ones
+     */
+    public void clear() {
+        metrics.clear();
+    }
+}
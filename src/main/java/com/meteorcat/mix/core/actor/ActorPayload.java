@@ -0,0 +1,12 @@
+package com.meteorcat.mix.core.actor;
+
+import java.lang.annotation.*;
+
+/**
+ * Actor entry payload parameter, decoded from the raw message by a reader cached per type
+ * @author MeteorCat
+ */
+@Documented
+@Target({ElementType.PARAMETER})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ActorPayload { }
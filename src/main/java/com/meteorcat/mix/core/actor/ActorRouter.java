@@ -0,0 +1,223 @@
+package com.meteorcat.mix.core.actor;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+
+/**
+ * Hot-swappable opcode routing
+ * <p>
+ * Readers take one volatile snapshot per lookup and never lock. Writers copy the current table, change the copy
+ * and publish a new immutable {@link ActorDispatchTable} by compare-and-set, dispatches already holding
+ * a tuple keep running on it.
+ *
+ * @author MeteorCat
+ */
+public class ActorRouter {
+
+    /**
+     * Current routing
+     */
+    private final AtomicReference<State> state;
+
+
+    /**
+     * Construct Method
+     *
+     * @param tuples opcode to tuple, such as ActorSearcher.searchMapping
+     */
+    public ActorRouter(Map<Integer, ActorTuple> tuples) {
+        this.state = new AtomicReference<>(new State(ActorDispatchTable.of(tuples), Collections.emptyMap()));
+    }
+
+
+    /**
+     * get actor tuple of current snapshot
+     *
+     * @param opcode actor value
+     * @return ActorTuple, null if missing or disabled
+     */
+    public ActorTuple get(int opcode) {
+        return state.get().table.get(opcode);
+    }
+
+
+    /**
+     * Current immutable table
+     *
+     * @return ActorDispatchTable
+     */
+    public ActorDispatchTable getTable() {
+        return state.get().table;
+    }
+
+
+    /**
+     * Disabled opcodes
+     *
+     * @return Set<Integer>
+     */
+    public Set<Integer> getDisabled() {
+        return state.get().disabled.keySet();
+    }
+
+
+    /**
+     * Stop routing opcode, the tuple is kept for {@link #enable(int)}
+     *
+     * @param opcode actor value
+     * @return boolean, false if not routed
+     */
+    public boolean disable(int opcode) {
+        State current, next;
+        do {
+            current = state.get();
+            ActorTuple tuple = current.table.get(opcode);
+            if (tuple == null) {
+                return false;
+            }
+            Map<Integer, ActorTuple> tuples = current.table.toMap();
+            tuples.remove(opcode);
+            Map<Integer, ActorTuple> disabled = new LinkedHashMap<>(current.disabled);
+            disabled.put(opcode, tuple);
+            next = new State(ActorDispatchTable.of(tuples), Collections.unmodifiableMap(disabled));
+        } while (!state.compareAndSet(current, next));
+        return true;
+    }
+
+
+    /**
+     * Route disabled opcode again
+     *
+     * @param opcode actor value
+     * @return boolean, false if not disabled
+     */
+    public boolean enable(int opcode) {
+        State current, next;
+        do {
+            current = state.get();
+            ActorTuple tuple = current.disabled.get(opcode);
+            if (tuple == null) {
+                return false;
+            }
+            Map<Integer, ActorTuple> tuples = current.table.toMap();
+            tuples.put(opcode, tuple);
+            Map<Integer, ActorTuple> disabled = new LinkedHashMap<>(current.disabled);
+            disabled.remove(opcode);
+            next = new State(ActorDispatchTable.of(tuples), Collections.unmodifiableMap(disabled));
+        } while (!state.compareAndSet(current, next));
+        return true;
+    }
+
+
+    /**
+     * Route opcode of tuple to it, a disabled opcode is enabled
+     *
+     * @param tuple new tuple
+     * @return ActorTuple, previous routed tuple or null
+     */
+    public ActorTuple replace(ActorTuple tuple) {
+        int opcode = tuple.getValue();
+        State current, next;
+        do {
+            current = state.get();
+            Map<Integer, ActorTuple> tuples = current.table.toMap();
+            tuples.put(opcode, tuple);
+            Map<Integer, ActorTuple> disabled = current.disabled;
+            if (disabled.containsKey(opcode)) {
+                disabled = new LinkedHashMap<>(disabled);
+                disabled.remove(opcode);
+                disabled = Collections.unmodifiableMap(disabled);
+            }
+            next = new State(ActorDispatchTable.of(tuples), disabled);
+        } while (!state.compareAndSet(current, next));
+        return current.table.get(opcode);
+    }
+
+
+    /**
+     * Drop opcode, routed or disabled
+     *
+     * @param opcode actor value
+     * @return ActorTuple, removed tuple or null
+     */
+    public ActorTuple remove(int opcode) {
+        State current, next;
+        ActorTuple removed;
+        do {
+            current = state.get();
+            removed = current.table.get(opcode);
+            if (removed == null) {
+                removed = current.disabled.get(opcode);
+            }
+            if (removed == null) {
+                return null;
+            }
+            Map<Integer, ActorTuple> tuples = current.table.toMap();
+            tuples.remove(opcode);
+            Map<Integer, ActorTuple> disabled = new LinkedHashMap<>(current.disabled);
+            disabled.remove(opcode);
+            next = new State(ActorDispatchTable.of(tuples), Collections.unmodifiableMap(disabled));
+        } while (!state.compareAndSet(current, next));
+        return removed;
+    }
+
+
+    /**
+     * Publish a whole new routing, disabled opcodes are dropped
+     *
+     * @param tuples opcode to tuple
+     */
+    public void replaceAll(Map<Integer, ActorTuple> tuples) {
+        state.set(new State(ActorDispatchTable.of(tuples), Collections.emptyMap()));
+    }
+
+
+    /**
+     * Change routed tuples atomically, function may run more than once under contention
+     *
+     * @param function copy of routed tuples -> new routed tuples
+     */
+    public void update(UnaryOperator<Map<Integer, ActorTuple>> function) {
+        State current, next;
+        do {
+            current = state.get();
+            Map<Integer, ActorTuple> tuples = function.apply(current.table.toMap());
+            Map<Integer, ActorTuple> disabled = new LinkedHashMap<>(current.disabled);
+            disabled.keySet().removeAll(tuples.keySet());
+            next = new State(ActorDispatchTable.of(tuples), Collections.unmodifiableMap(disabled));
+        } while (!state.compareAndSet(current, next));
+    }
+
+
+    /**
+     * Immutable routing snapshot
+     */
+    private static final class State {
+
+        /**
+         * Routed tuples
+         */
+        private final ActorDispatchTable table;
+
+        /**
+         * Disabled tuples
+         */
+        private final Map<Integer, ActorTuple> disabled;
+
+
+        /**
+         * Construct Method
+         *
+         * @param table    routed tuples
+         * @param disabled disabled tuples
+         */
+        State(ActorDispatchTable table, Map<Integer, ActorTuple> disabled) {
+            this.table = table;
+            this.disabled = disabled;
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package com.meteorcat.mix.core.actor;
+
+import org.springframework.context.ApplicationContext;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * One pass scan of every ActorController bean
+ * <p>
+ * Controllers are grouped by their {@link ActorController#value()} classes, fields, methods and invokers of
+ * every controller are resolved in parallel once. Lookups by runtime type are map hits afterwards,
+ * the merged mapping of each runtime type is cached on first use.
+ *
+ * @author MeteorCat
+ */
+public final class ActorScan {
+
+    /**
+     * Mapping cache key of every controller
+     */
+    private static final Class<?> ALL = ActorScan.class;
+
+    /**
+     * Scanned controllers in bean order
+     */
+    private final Map<Class<?>, Controller> controllers;
+
+    /**
+     * runtime class -> controllers requiring it
+     */
+    private final Map<Class<?>, Set<Class<?>>> runtimes;
+
+    /**
+     * runtime class -> merged mapping
+     */
+    private final Map<Class<?>, Map<Integer, ActorTuple>> mappings = new ConcurrentHashMap<>();
+
+
+    /**
+     * Construct Method
+     *
+     * @param controllers scanned controllers
+     * @param runtimes    runtime class -> controllers
+     */
+    private ActorScan(Map<Class<?>, Controller> controllers, Map<Class<?>, Set<Class<?>>> runtimes) {
+        this.controllers = controllers;
+        this.runtimes = runtimes;
+    }
+
+
+    /**
+     * Scan every ActorController bean of context
+     *
+     * @param context Spring context
+     * @return ActorScan
+     */
+    public static ActorScan of(ApplicationContext context) {
+        Map<Class<?>, Set<Class<?>>> runtimes = new LinkedHashMap<>();
+        Map<Class<?>, Object> handlers = new LinkedHashMap<>();
+        if (context != null) {
+            for (String beanName : context.getBeanNamesForAnnotation(ActorController.class)) {
+                Class<?> clazz = context.getType(beanName);
+                if (clazz != null) {
+                    add(clazz, context.getBean(beanName), handlers, runtimes);
+                }
+            }
+        }
+        return resolve(handlers, runtimes);
+    }
+
+
+    /**
+     * Scan given ActorController classes of context
+     *
+     * @param context Spring context
+     * @param classes controller classes, beans of context
+     * @return ActorScan
+     */
+    public static ActorScan of(ApplicationContext context, Set<Class<?>> classes) {
+        Map<Class<?>, Set<Class<?>>> runtimes = new LinkedHashMap<>();
+        Map<Class<?>, Object> handlers = new LinkedHashMap<>();
+        if (context != null) {
+            for (Class<?> clazz : classes) {
+                add(clazz, context.getBean(clazz), handlers, runtimes);
+            }
+        }
+        return resolve(handlers, runtimes);
+    }
+
+
+    /**
+     * Register controller bean and the runtime classes it requires
+     *
+     * @param clazz    bean class
+     * @param handler  bean instance
+     * @param handlers bean class -> instance
+     * @param runtimes runtime class -> controllers
+     */
+    private static void add(Class<?> clazz, Object handler, Map<Class<?>, Object> handlers, Map<Class<?>, Set<Class<?>>> runtimes) {
+        handlers.put(clazz, handler);
+        ActorController controller = clazz.getAnnotation(ActorController.class);
+        if (controller != null) {
+            for (Class<?> runtime : controller.value()) {
+                runtimes.computeIfAbsent(runtime, k -> new LinkedHashSet<>()).add(clazz);
+            }
+        }
+    }
+
+
+    /**
+     * Resolve every controller in parallel
+     *
+     * @param handlers bean class -> instance
+     * @param runtimes runtime class -> controllers
+     * @return ActorScan
+     */
+    private static ActorScan resolve(Map<Class<?>, Object> handlers, Map<Class<?>, Set<Class<?>>> runtimes) {
+        Map<Class<?>, IActorIndex> indexes = ActorSearcher.searchIndexes();
+        Map<Class<?>, Controller> resolved = handlers.entrySet().parallelStream()
+                .map(entry -> new Controller(entry.getKey(), entry.getValue(), indexes.get(ClassUtils.getUserClass(entry.getKey()))))
+                .collect(Collectors.toMap(controller -> controller.clazz, controller -> controller, (a, b) -> a, LinkedHashMap::new));
+        return new ActorScan(resolved, runtimes);
+    }
+
+
+    /**
+     * Controllers requiring runtime class
+     *
+     * @param runtime Require class, null for every controller
+     * @return Set<Class<?>>
+     */
+    public Set<Class<?>> getControllers(Class<?> runtime) {
+        if (runtime == null) {
+            return Collections.unmodifiableSet(controllers.keySet());
+        }
+        return Collections.unmodifiableSet(runtimes.getOrDefault(runtime, Collections.emptySet()));
+    }
+
+
+    /**
+     * Inject runtime and get merged mapping of its controllers
+     *
+     * @param runtime  Require class, null for every controller
+     * @param instance Runtime, null to skip @ActorRuntime injection
+     * @param <T>      Runtime Type
+     * @return Map<Integer, ActorTuple>, read only
+     * @throws IllegalAccessException ActorMapping clash
+     */
+    public <T> Map<Integer, ActorTuple> getMapping(Class<T> runtime, T instance) throws IllegalAccessException {
+        Set<Class<?>> classes = getControllers(runtime);
+        if (instance != null) {
+            for (Class<?> clazz : classes) {
+                controllers.get(clazz).inject(instance);
+            }
+        }
+        Class<?> key = runtime == null ? ALL : runtime;
+        Map<Integer, ActorTuple> mapping = mappings.get(key);
+        if (mapping == null) {
+            mapping = merge(classes);
+            Map<Integer, ActorTuple> previous = mappings.putIfAbsent(key, mapping);
+            mapping = previous != null ? previous : mapping;
+        }
+        return mapping;
+    }
+
+
+    /**
+     * Inject runtime and get dispatch table of its controllers
+     *
+     * @param runtime  Require class, null for every controller
+     * @param instance Runtime, null to skip @ActorRuntime injection
+     * @param <T>      Runtime Type
+     * @return ActorDispatchTable
+     * @throws IllegalAccessException ActorMapping clash
+     */
+    public <T> ActorDispatchTable getTable(Class<T> runtime, T instance) throws IllegalAccessException {
+        return ActorDispatchTable.of(getMapping(runtime, instance));
+    }
+
+
+    /**
+     * Merge controller tuples
+     *
+     * @param classes controllers
+     * @return Map<Integer, ActorTuple>
+     * @throws IllegalAccessException ActorMapping clash
+     */
+    private Map<Integer, ActorTuple> merge(Set<Class<?>> classes) throws IllegalAccessException {
+        Map<Integer, ActorTuple> tuples = new LinkedHashMap<>();
+        for (Class<?> clazz : classes) {
+            for (ActorTuple tuple : controllers.get(clazz).tuples) {
+                if (tuples.putIfAbsent(tuple.getValue(), tuple) != null) {
+                    throw new IllegalAccessException(String.format("ActorMapping clash by %d", tuple.getValue()));
+                }
+            }
+        }
+        return Collections.unmodifiableMap(tuples);
+    }
+
+
+    /**
+     * Resolved controller
+     */
+    private static final class Controller {
+
+        /**
+         * Bean class
+         */
+        private final Class<?> clazz;
+
+        /**
+         * Bean instance
+         */
+        private final Object handler;
+
+        /**
+         * Compile-time index, null to reflect
+         */
+        private final IActorIndex index;
+
+        /**
+         * ActorRuntime fields
+         */
+        private final List<Field> fields = new ArrayList<>();
+
+        /**
+         * ActorMapping tuples
+         */
+        private final List<ActorTuple> tuples = new ArrayList<>();
+
+
+        /**
+         * Resolve fields, methods and invokers
+         *
+         * @param clazz   bean class
+         * @param handler bean instance
+         * @param index   compile-time index, null to reflect
+         */
+        Controller(Class<?> clazz, Object handler, IActorIndex index) {
+            this.clazz = clazz;
+            this.handler = handler;
+            this.index = index;
+            if (index != null) {
+                tuples.addAll(index.mapping(handler).values());
+                return;
+            }
+
+            Class<?> user = ClassUtils.getUserClass(clazz);
+            for (Field field : user.getDeclaredFields()) {
+                if (field.isAnnotationPresent(ActorRuntime.class)) {
+                    field.setAccessible(true);
+                    fields.add(field);
+                }
+            }
+            for (Method method : user.getDeclaredMethods()) {
+                ActorMapping mapping = method.getAnnotation(ActorMapping.class);
+                if (mapping != null) {
+                    tuples.add(new ActorTuple(mapping.value(), handler, method, ActorInvoker.of(handler, method)));
+                }
+            }
+        }
+
+
+        /**
+         * Set runtime into @ActorRuntime fields
+         *
+         * @param instance Runtime
+         * @throws IllegalAccessException field not writable
+         */
+        void inject(Object instance) throws IllegalAccessException {
+            if (index != null) {
+                index.inject(handler, instance);
+                return;
+            }
+            for (Field field : fields) {
+                field.set(handler, instance);
+            }
+        }
+    }
+}
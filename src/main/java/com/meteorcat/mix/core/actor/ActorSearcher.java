@@ -1,10 +1,12 @@
 package com.meteorcat.mix.core.actor;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import org.springframework.context.ApplicationContext;
 
-import java.lang.reflect.Field;
-import java.lang.reflect.Method;
+import java.lang.reflect.Type;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Search Actor Component
@@ -13,6 +15,21 @@ import java.util.*;
  */
 public final class ActorSearcher {
 
+    /**
+     * Payload mapper
+     */
+    private static volatile ObjectMapper payloadMapper = new ObjectMapper();
+
+    /**
+     * Latest loaded compile-time indexes, one class loader kept
+     */
+    private static volatile Indexes loaded;
+
+    /**
+     * Payload readers by type
+     */
+    private static final Map<Type, ObjectReader> PAYLOADS = new ConcurrentHashMap<>();
+
 
     /**
      * Search ActorControllers
@@ -66,33 +83,7 @@ public final class ActorSearcher {
             return tuples;
         }
 
-        for (Class<?> clazz : classes) {
-            Object handler = context.getBean(clazz);
-            if (instance != null) {
-                Field[] fields = clazz.getDeclaredFields();
-                for (Field filed : fields) {
-                    ActorRuntime runtime = filed.getAnnotation(ActorRuntime.class);
-                    if (runtime != null) {
-                        filed.setAccessible(true);
-                        filed.set(handler, instance);
-                    }
-                }
-            }
-
-
-            Method[] methods = clazz.getDeclaredMethods();
-            for (Method method : methods) {
-                ActorMapping mapping = method.getAnnotation(ActorMapping.class);
-                if (mapping != null) {
-                    int value = mapping.value();
-                    if (tuples.containsKey(value)) {
-                        throw new IllegalAccessException(String.format("ActorMapping clash by %d", value));
-                    }
-                    ActorTuple tuple = new ActorTuple(value, handler, method);
-                    tuples.put(value, tuple);
-                }
-            }
-        }
+        tuples.putAll(ActorScan.of(context, classes).getMapping(null, instance));
         return tuples;
     }
 
@@ -109,4 +100,111 @@ public final class ActorSearcher {
     }
 
 
+    /**
+     * Search all actor mapping into dispatch table
+     *
+     * @param applicationContext Spring Context
+     * @param clazz              Require class
+     * @param instance           Runtime
+     * @param <T>                Runtime Type
+     * @return ActorDispatchTable
+     */
+    public static <T> ActorDispatchTable searchTable(ApplicationContext applicationContext, Class<T> clazz, T instance) throws IllegalAccessException {
+        return ActorDispatchTable.of(searchMapping(applicationContext, clazz, instance));
+    }
+
+
+    /**
+     * Search compile-time controller indexes, controllers without index fall back to reflection
+     * <p>
+     * Loaded once per class loader, a broken service entry fails loudly instead of silently dropping its index.
+     *
+     * @return Map<Class<?>, IActorIndex>
+     * @throws ServiceConfigurationError broken index service entry
+     */
+    public static Map<Class<?>, IActorIndex> searchIndexes() {
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        loader = loader != null ? loader : ActorSearcher.class.getClassLoader();
+        Indexes indexes = loaded;
+        if (indexes == null || indexes.loader != loader) {
+            Map<Class<?>, IActorIndex> found = new HashMap<>();
+            for (IActorIndex index : ServiceLoader.load(IActorIndex.class, loader)) {
+                found.put(index.getController(), index);
+            }
+            indexes = new Indexes(loader, Collections.unmodifiableMap(found));
+            loaded = indexes;
+        }
+        return indexes.indexes;
+    }
+
+
+    /**
+     * Indexes loaded by one class loader
+     */
+    private static final class Indexes {
+
+        /**
+         * Service class loader
+         */
+        private final ClassLoader loader;
+
+        /**
+         * controller class -> index
+         */
+        private final Map<Class<?>, IActorIndex> indexes;
+
+
+        /**
+         * Construct Method
+         *
+         * @param loader  service class loader
+         * @param indexes controller class -> index
+         */
+        private Indexes(ClassLoader loader, Map<Class<?>, IActorIndex> indexes) {
+            this.loader = loader;
+            this.indexes = indexes;
+        }
+    }
+
+
+    /**
+     * Scan every ActorController bean once, the caller keeps the scan for as long as the context lives
+     *
+     * @param context Spring context
+     * @return ActorScan
+     */
+    public static ActorScan scan(ApplicationContext context) {
+        return ActorScan.of(context);
+    }
+
+
+    /**
+     * Payload reader of ActorPayload type, built once per type
+     *
+     * @param type payload parameter type
+     * @return ObjectReader
+     */
+    public static ObjectReader searchPayload(Type type) {
+        ObjectReader reader = PAYLOADS.get(type);
+        if (reader == null) {
+            ObjectMapper mapper = payloadMapper;
+            reader = PAYLOADS.computeIfAbsent(type, k -> mapper.readerFor(mapper.constructType(k)));
+        }
+        return reader;
+    }
+
+
+    /**
+     * Set payload mapper, such as with custom modules, must be configured before searchMapping
+     * <p>
+     * Governs every json payload decode of ActorTuple, NodeCodec.JSON included.
+     *
+     * @param mapper ObjectMapper
+     */
+    public static void setPayloadMapper(ObjectMapper mapper) {
+        payloadMapper = mapper;
+        PAYLOADS.clear();
+    }
+
+
 }
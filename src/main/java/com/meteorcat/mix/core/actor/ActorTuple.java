@@ -1,6 +1,13 @@
 package com.meteorcat.mix.core.actor;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.meteorcat.mix.core.utils.NodeCodec;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
+import java.lang.reflect.Type;
 import java.util.Objects;
 
 /**
@@ -27,6 +34,54 @@ public class ActorTuple {
     private final Method method;
 
 
+    /**
+     * actor entry invoker
+     */
+    private final ActorInvoker invoker;
+
+
+    /**
+     * ActorPayload parameter index, -1 if none
+     */
+    private final int payload;
+
+
+    /**
+     * payload reader, null if none
+     */
+    private final ObjectReader reader;
+
+
+    /**
+     * ActorPayload parameter type, null if none
+     */
+    private final Type payloadType;
+
+
+    /**
+     * payload readers by NodeCodec ordinal, resolved on first use, JSON excluded
+     */
+    private final ObjectReader[] codecs;
+
+
+    /**
+     * actor entry execution
+     */
+    private final ActorExecution execution;
+
+
+    /**
+     * serialize calls of the same owner
+     */
+    private final boolean serial;
+
+
+    /**
+     * max execution time in milliseconds, 0 is unbounded
+     */
+    private final long timeout;
+
+
     /**
      * construct method
      * @param value actor value
@@ -34,9 +89,76 @@ public class ActorTuple {
      * @param method actor entry
      */
     public ActorTuple(int value, Object instance, Method method) {
+        this(value, instance, method, ActorInvoker.of(instance, method));
+    }
+
+
+    /**
+     * construct method
+     * @param value actor value
+     * @param instance actor instance
+     * @param method actor entry
+     * @param invoker actor entry invoker
+     */
+    public ActorTuple(int value, Object instance, Method method, ActorInvoker invoker) {
         this.value = value;
         this.instance = instance;
         this.method = method;
+        this.invoker = invoker;
+
+        int index = -1;
+        if (method != null) {
+            Annotation[][] annotations = method.getParameterAnnotations();
+            for (int i = 0; i < annotations.length; i++) {
+                for (Annotation annotation : annotations[i]) {
+                    if (annotation instanceof ActorPayload) {
+                        if (index >= 0) {
+                            throw new IllegalArgumentException(String.format("ActorPayload declared twice by %d", value));
+                        }
+                        index = i;
+                    }
+                }
+            }
+        }
+        this.payload = index;
+        this.payloadType = index < 0 ? null : method.getGenericParameterTypes()[index];
+        this.reader = index < 0 ? null : ActorSearcher.searchPayload(payloadType);
+        this.codecs = new ObjectReader[NodeCodec.values().length];
+
+        ActorMapping mapping = method != null ? method.getAnnotation(ActorMapping.class) : null;
+        this.execution = mapping != null ? mapping.execution() : ActorExecution.INLINE;
+        this.serial = mapping != null && mapping.serial();
+        this.timeout = mapping != null ? Math.max(0L, mapping.timeout()) : 0L;
+    }
+
+
+    /**
+     * copy method
+     * @param tuple source tuple
+     * @param invoker actor entry invoker
+     */
+    private ActorTuple(ActorTuple tuple, ActorInvoker invoker) {
+        this.value = tuple.value;
+        this.instance = tuple.instance;
+        this.method = tuple.method;
+        this.invoker = invoker;
+        this.payload = tuple.payload;
+        this.reader = tuple.reader;
+        this.payloadType = tuple.payloadType;
+        this.codecs = tuple.codecs;
+        this.execution = tuple.execution;
+        this.serial = tuple.serial;
+        this.timeout = tuple.timeout;
+    }
+
+
+    /**
+     * copy tuple with another invoker, such as a decorated one
+     * @param invoker actor entry invoker
+     * @return ActorTuple
+     */
+    public ActorTuple withInvoker(ActorInvoker invoker) {
+        return new ActorTuple(this, invoker);
     }
 
 
@@ -64,6 +186,180 @@ public class ActorTuple {
         return method;
     }
 
+    /**
+     * get actor entry invoker
+     * @return ActorInvoker
+     */
+    public ActorInvoker getInvoker() {
+        return invoker;
+    }
+
+    /**
+     * invoke actor entry
+     * @param args entry arguments
+     * @return Object
+     * @throws Exception handler failure
+     */
+    public Object invoke(Object... args) throws Exception {
+        return invoker.invoke(args);
+    }
+
+    /**
+     * get actor entry execution
+     * @return ActorExecution
+     */
+    public ActorExecution getExecution() {
+        return execution;
+    }
+
+    /**
+     * calls of the same owner serialized?
+     * @return boolean
+     */
+    public boolean isSerial() {
+        return serial;
+    }
+
+    /**
+     * get max execution time in milliseconds
+     * @return long, 0 is unbounded
+     */
+    public long getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * get ActorPayload parameter index
+     * @return int, -1 if none
+     */
+    public int getPayloadIndex() {
+        return payload;
+    }
+
+    /**
+     * get payload reader
+     * @return ObjectReader, null if none
+     */
+    public ObjectReader getPayloadReader() {
+        return reader;
+    }
+
+    /**
+     * decode payload into ActorPayload type
+     * @param data raw payload
+     * @return Object, null if entry has no payload parameter
+     * @throws IOException malformed payload
+     */
+    public Object decode(byte[] data) throws IOException {
+        return reader == null ? null : reader.readValue(data);
+    }
+
+    /**
+     * decode payload into ActorPayload type
+     * @param data raw payload
+     * @return Object, null if entry has no payload parameter
+     * @throws IOException malformed payload
+     */
+    public Object decode(String data) throws IOException {
+        return reader == null ? null : reader.readValue(data);
+    }
+
+    /**
+     * convert parsed payload into ActorPayload type
+     * @param node parsed payload
+     * @return Object, null if entry has no payload parameter
+     * @throws IOException payload doesn't match type
+     */
+    public Object decode(JsonNode node) throws IOException {
+        return reader == null ? null : reader.readValue(node);
+    }
+
+    /**
+     * decode payload of codec into ActorPayload type
+     * @param codec payload format
+     * @param data raw payload
+     * @return Object, null if entry has no payload parameter
+     * @throws IOException malformed payload
+     */
+    public Object decode(NodeCodec codec, byte[] data) throws IOException {
+        ObjectReader reader = getPayloadReader(codec);
+        return reader == null ? null : reader.readValue(data);
+    }
+
+    /**
+     * get payload reader of codec, JSON shares the payload mapper of {@link ActorSearcher#setPayloadMapper}
+     * @param codec payload format
+     * @return ObjectReader, null if none
+     */
+    public ObjectReader getPayloadReader(NodeCodec codec) {
+        if (payloadType == null || codec == NodeCodec.JSON) {
+            return reader;
+        }
+        ObjectReader reader = codecs[codec.ordinal()];
+        if (reader == null) {
+            reader = codec.reader(payloadType);
+            codecs[codec.ordinal()] = reader;
+        }
+        return reader;
+    }
+
+    /**
+     * decode payload into its argument slot then invoke actor entry
+     * @param data raw payload
+     * @param args entry arguments, the ActorPayload slot is overwritten
+     * @return Object
+     * @throws Exception malformed payload or handler failure
+     */
+    public Object dispatch(byte[] data, Object... args) throws Exception {
+        if (reader != null) {
+            args[payload] = reader.readValue(data);
+        }
+        return invoker.invoke(args);
+    }
+
+    /**
+     * decode payload into its argument slot then invoke actor entry
+     * @param data raw payload
+     * @param args entry arguments, the ActorPayload slot is overwritten
+     * @return Object
+     * @throws Exception malformed payload or handler failure
+     */
+    public Object dispatch(String data, Object... args) throws Exception {
+        if (reader != null) {
+            args[payload] = reader.readValue(data);
+        }
+        return invoker.invoke(args);
+    }
+
+    /**
+     * convert parsed payload into its argument slot then invoke actor entry
+     * @param node parsed payload
+     * @param args entry arguments, the ActorPayload slot is overwritten
+     * @return Object
+     * @throws Exception payload doesn't match type or handler failure
+     */
+    public Object dispatch(JsonNode node, Object... args) throws Exception {
+        if (reader != null) {
+            args[payload] = reader.readValue(node);
+        }
+        return invoker.invoke(args);
+    }
+
+    /**
+     * decode payload of codec into its argument slot then invoke actor entry
+     * @param codec payload format
+     * @param data raw payload
+     * @param args entry arguments, the ActorPayload slot is overwritten
+     * @return Object
+     * @throws Exception malformed payload or handler failure
+     */
+    public Object dispatch(NodeCodec codec, byte[] data, Object... args) throws Exception {
+        if (payloadType != null) {
+            args[payload] = getPayloadReader(codec).readValue(data);
+        }
+        return invoker.invoke(args);
+    }
+
     /**
      * inherit hash code
      * @return int
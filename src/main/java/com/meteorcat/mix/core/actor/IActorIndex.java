@@ -0,0 +1,78 @@
+package com.meteorcat.mix.core.actor;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.Map;
+
+/**
+ * Compile-time ActorController index
+ * <p>
+ * Generated by the core-processor annotation processor as {@code <Controller>$ActorIndex} and registered in
+ * {@code META-INF/services}, {@link ActorSearcher} uses it instead of reflecting over the controller.
+ *
+ * @author MeteorCat
+ */
+public interface IActorIndex {
+
+
+    /**
+     * Indexed controller
+     *
+     * @return Class<?>
+     */
+    Class<?> getController();
+
+
+    /**
+     * Set runtime into @ActorRuntime fields
+     *
+     * @param handler controller instance
+     * @param runtime Runtime
+     */
+    void inject(Object handler, Object runtime);
+
+
+    /**
+     * Build @ActorMapping tuples bound to handler
+     *
+     * @param handler controller instance
+     * @return Map<Integer, ActorTuple>
+     */
+    Map<Integer, ActorTuple> mapping(Object handler);
+
+
+    /**
+     * Resolve declared method for generated index
+     *
+     * @param clazz controller
+     * @param name  method name
+     * @param types parameter types
+     * @return Method
+     */
+    static Method method(Class<?> clazz, String name, Class<?>... types) {
+        try {
+            return clazz.getDeclaredMethod(name, types);
+        } catch (NoSuchMethodException exception) {
+            throw new IllegalStateException(String.format("ActorIndex out of date: %s.%s", clazz.getName(), name), exception);
+        }
+    }
+
+
+    /**
+     * Set field not reachable from generated index, such as private or final
+     *
+     * @param handler controller instance
+     * @param clazz   controller
+     * @param name    field name
+     * @param value   field value
+     */
+    static void set(Object handler, Class<?> clazz, String name, Object value) {
+        try {
+            Field field = clazz.getDeclaredField(name);
+            field.setAccessible(true);
+            field.set(handler, value);
+        } catch (NoSuchFieldException | IllegalAccessException exception) {
+            throw new IllegalStateException(String.format("ActorIndex out of date: %s.%s", clazz.getName(), name), exception);
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package com.meteorcat.mix.core.actor;
+
+import java.lang.invoke.*;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * LambdaMetafactory actor invoker
+ * <p>
+ * The entry is compiled into a class implementing one of the fixed-arity targets below, defined next to the
+ * controller through {@link MethodHandles#privateLookupIn}. Calls are plain interface calls the JIT inlines,
+ * up to {@link #MAX_ARITY} arguments.
+ *
+ * @author MeteorCat
+ */
+final class LambdaInvoker {
+
+    /**
+     * Largest compiled arity
+     */
+    static final int MAX_ARITY = 4;
+
+    /**
+     * Non-void targets by arity
+     */
+    private static final Class<?>[] CALLS = {Call0.class, Call1.class, Call2.class, Call3.class, Call4.class};
+
+    /**
+     * Void targets by arity
+     */
+    private static final Class<?>[] RUNS = {Run0.class, Run1.class, Run2.class, Run3.class, Run4.class};
+
+
+    /**
+     * Utility class
+     */
+    private LambdaInvoker() {
+    }
+
+
+    /**
+     * Compile entry bound to instance
+     *
+     * @param instance actor instance, ignored by static entry
+     * @param method   actor entry
+     * @return ActorInvoker, null if the entry can't be compiled
+     */
+    static ActorInvoker of(Object instance, Method method) {
+        int arity = method.getParameterCount();
+        if (arity > MAX_ARITY) {
+            return null;
+        }
+        boolean result = method.getReturnType() != void.class;
+        Class<?> target = result ? CALLS[arity] : RUNS[arity];
+        boolean bound = !Modifier.isStatic(method.getModifiers());
+        try {
+            Class<?> owner = method.getDeclaringClass();
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(owner, MethodHandles.lookup());
+            MethodHandle handle = lookup.unreflect(method);
+            Method sam = target.getMethods()[0];
+            MethodType samType = MethodType.methodType(sam.getReturnType(), sam.getParameterTypes());
+            MethodType instantiated = MethodType.methodType(method.getReturnType(), method.getParameterTypes()).wrap();
+            if (!result) {
+                instantiated = instantiated.changeReturnType(void.class);
+            }
+            CallSite site = LambdaMetafactory.metafactory(lookup, sam.getName(),
+                    bound ? MethodType.methodType(target, owner) : MethodType.methodType(target),
+                    samType, handle, instantiated);
+            Object function = bound ? site.getTarget().invoke(instance) : site.getTarget().invoke();
+            return adapt(arity, result, function);
+        } catch (Throwable throwable) {
+            return null;
+        }
+    }
+
+
+    /**
+     * Spread arguments into compiled target
+     *
+     * @param arity    argument count
+     * @param result   non-void entry?
+     * @param function compiled target
+     * @return ActorInvoker
+     */
+    private static ActorInvoker adapt(int arity, boolean result, Object function) {
+        if (result) {
+            switch (arity) {
+                case 0: {
+                    Call0 call = (Call0) function;
+                    return args -> call.call();
+                }
+                case 1: {
+                    Call1 call = (Call1) function;
+                    return args -> call.call(args[0]);
+                }
+                case 2: {
+                    Call2 call = (Call2) function;
+                    return args -> call.call(args[0], args[1]);
+                }
+                case 3: {
+                    Call3 call = (Call3) function;
+                    return args -> call.call(args[0], args[1], args[2]);
+                }
+                default: {
+                    Call4 call = (Call4) function;
+                    return args -> call.call(args[0], args[1], args[2], args[3]);
+                }
+            }
+        }
+        switch (arity) {
+            case 0: {
+                Run0 run = (Run0) function;
+                return args -> {
+                    run.run();
+                    return null;
+                };
+            }
+            case 1: {
+                Run1 run = (Run1) function;
+                return args -> {
+                    run.run(args[0]);
+                    return null;
+                };
+            }
+            case 2: {
+                Run2 run = (Run2) function;
+                return args -> {
+                    run.run(args[0], args[1]);
+                    return null;
+                };
+            }
+            case 3: {
+                Run3 run = (Run3) function;
+                return args -> {
+                    run.run(args[0], args[1], args[2]);
+                    return null;
+                };
+            }
+            default: {
+                Run4 run = (Run4) function;
+                return args -> {
+                    run.run(args[0], args[1], args[2], args[3]);
+                    return null;
+                };
+            }
+        }
+    }
+
+
+    /**
+     * Non-void entry without arguments
+     */
+    public interface Call0 {
+        /**
+         * @return Object
+         * @throws Exception handler failure
+         */
+        Object call() throws Exception;
+    }
+
+    /**
+     * Non-void entry with 1 argument
+     */
+    public interface Call1 {
+        /**
+         * @param a argument
+         * @return Object
+         * @throws Exception handler failure
+         */
+        Object call(Object a) throws Exception;
+    }
+
+    /**
+     * Non-void entry with 2 arguments
+     */
+    public interface Call2 {
+        /**
+         * @param a argument
+         * @param b argument
+         * @return Object
+         * @throws Exception handler failure
+         */
+        Object call(Object a, Object b) throws Exception;
+    }
+
+    /**
+     * Non-void entry with 3 arguments
+     */
+    public interface Call3 {
+        /**
+         * @param a argument
+         * @param b argument
+         * @param c argument
+         * @return Object
+         * @throws Exception handler failure
+         */
+        Object call(Object a, Object b, Object c) throws Exception;
+    }
+
+    /**
+     * Non-void entry with 4 arguments
+     */
+    public interface Call4 {
+        /**
+         * @param a argument
+         * @param b argument
+         * @param c argument
+         * @param d argument
+         * @return Object
+         * @throws Exception handler failure
+         */
+        Object call(Object a, Object b, Object c, Object d) throws Exception;
+    }
+
+    /**
+     * Void entry without arguments
+     */
+    public interface Run0 {
+        /**
+         * @throws Exception handler failure
+         */
+        void run() throws Exception;
+    }
+
+    /**
+     * Void entry with 1 argument
+     */
+    public interface Run1 {
+        /**
+         * @param a argument
+         * @throws Exception handler failure
+         */
+        void run(Object a) throws Exception;
+    }
+
+    /**
+     * Void entry with 2 arguments
+     */
+    public interface Run2 {
+        /**
+         * @param a argument
+         * @param b argument
+         * @throws Exception handler failure
+         */
+        void run(Object a, Object b) throws Exception;
+    }
+
+    /**
+     * Void entry with 3 arguments
+     */
+    public interface Run3 {
+        /**
+         * @param a argument
+         * @param b argument
+         * @param c argument
+         * @throws Exception handler failure
+         */
+        void run(Object a, Object b, Object c) throws Exception;
+    }
+
+    /**
+     * Void entry with 4 arguments
+     */
+    public interface Run4 {
+        /**
+         * @param a argument
+         * @param b argument
+         * @param c argument
+         * @param d argument
+         * @throws Exception handler failure
+         */
+        void run(Object a, Object b, Object c, Object d) throws Exception;
+    }
+}
@@ -0,0 +1,61 @@
+package com.meteorcat.mix.core.actor;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.UndeclaredThrowableException;
+
+/**
+ * MethodHandle actor invoker
+ *
+ * @author MeteorCat
+ */
+final class MethodHandleInvoker implements ActorInvoker {
+
+    /**
+     * (Object[])Object handle
+     */
+    private final MethodHandle handle;
+
+
+    /**
+     * Construct Method
+     *
+     * @param handle (Object[])Object handle
+     */
+    MethodHandleInvoker(MethodHandle handle) {
+        this.handle = handle;
+    }
+
+
+    /**
+     * Invoke actor entry
+     *
+     * @param args entry arguments
+     * @return Object
+     * @throws Exception handler failure
+     */
+    @Override
+    public Object invoke(Object... args) throws Exception {
+        try {
+            return (Object) handle.invokeExact(args);
+        } catch (Throwable throwable) {
+            throw rethrow(throwable);
+        }
+    }
+
+
+    /**
+     * Rethrow Exception and Error as is, wrap anything else
+     *
+     * @param throwable failure
+     * @return Exception to throw
+     */
+    static Exception rethrow(Throwable throwable) {
+        if (throwable instanceof Exception) {
+            return (Exception) throwable;
+        }
+        if (throwable instanceof Error) {
+            throw (Error) throwable;
+        }
+        return new UndeclaredThrowableException(throwable);
+    }
+}
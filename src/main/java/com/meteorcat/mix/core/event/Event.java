@@ -1,17 +1,52 @@
 package com.meteorcat.mix.core.event;
 
 import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 /**
+ * Event callback
+ * <p>
+ * An instance may be registered under several owners or names, its future is then the last one scheduled.
+ * The coalescing pending flag belongs to one (owner, event) registration, so a coalescing EventMonitor
+ * binds the instance and refuses to register it twice.
+ *
  * @author MeteorCat
  */
 public class Event implements IEvent {
 
+    /**
+     * Pending flag updater
+     */
+    private static final AtomicIntegerFieldUpdater<Event> PENDING =
+            AtomicIntegerFieldUpdater.newUpdater(Event.class, "pending");
+
+    /**
+     * Registration updater
+     */
+    private static final AtomicReferenceFieldUpdater<Event, Object> REGISTRATION =
+            AtomicReferenceFieldUpdater.newUpdater(Event.class, Object.class, "registration");
+
     /**
      * Callback
      */
     private final Runnable runnable;
 
+    /**
+     * Callback clearing pending flag before it runs
+     */
+    private final Runnable coalesced;
+
+    /**
+     * Execution queued and not yet started? (0/1)
+     */
+    private volatile int pending = 0;
+
+    /**
+     * Registration key, null while unregistered
+     */
+    private volatile Object registration = null;
+
     /**
      * Future
      */
@@ -23,8 +58,7 @@ public class Event implements IEvent {
      * @param runnable callback
      */
     public Event(Runnable runnable) {
-        this.runnable = runnable;
-        this.future = null;
+        this(runnable, null);
     }
 
 
@@ -37,6 +71,7 @@ public class Event implements IEvent {
     public Event(Runnable runnable, ScheduledFuture<?> future) {
         this.runnable = runnable;
         this.future = future;
+        this.coalesced = new Coalesced(this);
     }
 
 
@@ -50,6 +85,68 @@ public class Event implements IEvent {
     }
 
 
+    /**
+     * get coalescing callback, clears pending flag when it starts
+     * @return Runnable
+     */
+    public Runnable getCoalescedTuple() {
+        return coalesced;
+    }
+
+
+    /**
+     * mark execution pending
+     * @return boolean false when an execution is already pending
+     */
+    public boolean markPending() {
+        return PENDING.compareAndSet(this, 0, 1);
+    }
+
+
+    /**
+     * release pending flag of a coalescing callback that will never run
+     * @param runnable callback
+     */
+    public static void release(Runnable runnable) {
+        if (runnable instanceof Coalesced) {
+            ((Coalesced) runnable).event.pending = 0;
+        }
+    }
+
+
+    /**
+     * bind event to its registration
+     * @param registration registration key, such as (owner, event) entry
+     * @throws IllegalStateException already bound to another registration
+     */
+    public void bind(Object registration) {
+        if (!REGISTRATION.compareAndSet(this, null, registration) && !registration.equals(this.registration)) {
+            throw new IllegalStateException(String.format("Event already registered as %s, cannot register as %s", this.registration, registration));
+        }
+    }
+
+
+    /**
+     * unbind event from its registration
+     * @param registration registration key
+     */
+    public void unbind(Object registration) {
+        Object current = this.registration;
+        if (current != null && current.equals(registration)) {
+            REGISTRATION.compareAndSet(this, current, null);
+        }
+    }
+
+
+    /**
+     * execution pending?
+     * @return boolean
+     */
+    public boolean isPending() {
+        return pending != 0;
+    }
+
+
     /**
      * get event future
      * @return ScheduledFuture<?>
@@ -92,4 +189,33 @@ public class Event implements IEvent {
         }
         return false;
     }
+
+
+    /**
+     * Coalescing callback
+     */
+    private static final class Coalesced implements Runnable {
+
+        /**
+         * owner event
+         */
+        private final Event event;
+
+        /**
+         * Construct Method
+         * @param event owner event
+         */
+        private Coalesced(Event event) {
+            this.event = event;
+        }
+
+        /**
+         * clear pending flag then run
+         */
+        @Override
+        public void run() {
+            event.pending = 0;
+            event.runnable.run();
+        }
+    }
 }
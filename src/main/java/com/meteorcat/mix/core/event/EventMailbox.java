@@ -0,0 +1,473 @@
+package com.meteorcat.mix.core.event;
+
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Owner mailbox
+ * <p>
+ * Lock-free multi-producer queue drained by at most one thread at a time,
+ * so callbacks of one owner run strictly in offer order without any owner monitor.
+ * Optionally bounded, overflow handled by {@link EventOverflow}. A retired mailbox drains what it holds,
+ * then refuses every later callback, so it never runs beside the mailbox replacing it.
+ * A failing callback goes to the failure handler and the drain goes on, it never unwinds the draining thread.
+ *
+ * @author MeteorCat
+ */
+public class EventMailbox implements Runnable {
+
+    /**
+     * Default callbacks drained before yielding the worker
+     */
+    public static final int DEFAULT_THROUGHPUT = 64;
+
+    /**
+     * No drain claimed
+     */
+    private static final int IDLE = 0;
+
+    /**
+     * Drain claimed
+     */
+    private static final int RUNNING = 1;
+
+    /**
+     * Drain claimed, retire once drained
+     */
+    private static final int RETIRING = 2;
+
+    /**
+     * Retired, refuses every callback
+     */
+    private static final int RETIRED = 3;
+
+
+    /**
+     * Pending callbacks
+     */
+    private final Queue<Runnable> queue = new ConcurrentLinkedQueue<>();
+
+
+    /**
+     * Pending callback count
+     */
+    private final AtomicInteger depth = new AtomicInteger();
+
+
+    /**
+     * Callbacks dropped or rejected by overflow
+     */
+    private final LongAdder dropped = new LongAdder();
+
+
+    /**
+     * Free slots, null when unbounded
+     */
+    private final Semaphore permits;
+
+
+    /**
+     * Overflow policy
+     */
+    private final EventOverflow overflow;
+
+
+    /**
+     * BLOCK policy wait (nanoseconds)
+     */
+    private final long blockNanos;
+
+
+    /**
+     * Receives every callback refused by overflow or retirement
+     */
+    private final Consumer<Runnable> overflowed;
+
+
+    /**
+     * Receives every failing callback with its failure
+     */
+    private final BiConsumer<Runnable, Throwable> failed;
+
+
+    /**
+     * Drain state
+     */
+    private final AtomicInteger state = new AtomicInteger(IDLE);
+
+
+    /**
+     * Called once retired, nullable
+     */
+    private volatile Runnable retired;
+
+
+    /**
+     * Drain executor
+     */
+    private final Executor executor;
+
+
+    /**
+     * Callbacks drained before yielding the worker
+     */
+    private final int throughput;
+
+
+    /**
+     * Construct Method
+     *
+     * @param executor drain executor
+     */
+    public EventMailbox(Executor executor) {
+        this(executor, DEFAULT_THROUGHPUT);
+    }
+
+
+    /**
+     * Construct Method
+     *
+     * @param executor   drain executor
+     * @param throughput callbacks drained before yielding the worker
+     */
+    public EventMailbox(Executor executor, int throughput) {
+        this(executor, throughput, Integer.MAX_VALUE, EventOverflow.REJECT, 0L, null);
+    }
+
+
+    /**
+     * Construct Method
+     *
+     * @param executor   drain executor
+     * @param throughput callbacks drained before yielding the worker
+     * @param capacity   max pending callbacks, Integer.MAX_VALUE unbounded
+     * @param overflow   overflow policy
+     * @param blockNanos BLOCK policy wait (nanoseconds)
+     * @param overflowed receives every callback refused by overflow or retirement, nullable
+     */
+    public EventMailbox(Executor executor, int throughput, int capacity, EventOverflow overflow, long blockNanos, Consumer<Runnable> overflowed) {
+        this(executor, throughput, capacity, overflow, blockNanos, overflowed, null);
+    }
+
+
+    /**
+     * Construct Method
+     *
+     * @param executor   drain executor
+     * @param throughput callbacks drained before yielding the worker
+     * @param capacity   max pending callbacks, Integer.MAX_VALUE unbounded
+     * @param overflow   overflow policy
+     * @param blockNanos BLOCK policy wait (nanoseconds)
+     * @param overflowed receives every callback refused by overflow or retirement, nullable
+     * @param failed     receives every failing callback with its failure, null hands it to the
+     *                   draining thread's uncaught exception handler
+     */
+    public EventMailbox(Executor executor, int throughput, int capacity, EventOverflow overflow, long blockNanos,
+                        Consumer<Runnable> overflowed, BiConsumer<Runnable, Throwable> failed) {
+        if (throughput <= 0 || capacity <= 0) {
+            throw new IllegalArgumentException("throughput and capacity must be positive");
+        }
+        this.executor = executor;
+        this.throughput = throughput;
+        this.permits = capacity == Integer.MAX_VALUE ? null : new Semaphore(capacity);
+        this.overflow = overflow;
+        this.blockNanos = blockNanos;
+        this.overflowed = overflowed;
+        this.failed = failed;
+    }
+
+
+    /**
+     * Offer callback, submit drain to executor if mailbox idle
+     *
+     * @param runnable callback
+     */
+    public void execute(Runnable runnable) {
+        if (offer(runnable)) {
+            submit();
+        }
+    }
+
+
+    /**
+     * Offer callback, drain in current thread if mailbox idle
+     *
+     * @param runnable callback
+     */
+    public void invoke(Runnable runnable) {
+        if (offer(runnable)) {
+            run();
+        }
+    }
+
+
+    /**
+     * Offer callback and try to claim drain
+     * <p>
+     * Caller receiving true owns the drain and must either call {@link #run()} or {@link #submit()}.
+     * Callback refused by overflow or retirement is never run and returns false.
+     *
+     * @param runnable callback
+     * @return boolean
+     */
+    public boolean offer(Runnable runnable) {
+        if (state.get() == RETIRED) {
+            refuse(runnable);
+            return false;
+        }
+        if (permits != null && !acquire(runnable)) {
+            return false;
+        }
+        queue.offer(runnable);
+        depth.incrementAndGet();
+        for (; ; ) {
+            int current = state.get();
+            if (current == IDLE) {
+                if (state.compareAndSet(IDLE, RUNNING)) {
+                    return true;
+                }
+            } else if (current == RETIRED) {
+                // retired meanwhile, the callback is refused by whoever unlinks it first
+                if (queue.remove(runnable)) {
+                    dequeued();
+                    refuse(runnable);
+                }
+                return false;
+            } else {
+                return false;
+            }
+        }
+    }
+
+
+    /**
+     * Take a free slot according to overflow policy
+     *
+     * @param runnable offered callback
+     * @return boolean
+     */
+    private boolean acquire(Runnable runnable) {
+        if (permits.tryAcquire()) {
+            return true;
+        }
+        switch (overflow) {
+            case DROP_OLDEST:
+                do {
+                    Runnable oldest = queue.poll();
+                    if (oldest != null) {
+                        // take over the slot of the dropped callback
+                        depth.decrementAndGet();
+                        refuse(oldest);
+                        return true;
+                    }
+                } while (!permits.tryAcquire());
+                return true;
+            case BLOCK:
+                try {
+                    if (permits.tryAcquire(blockNanos, TimeUnit.NANOSECONDS)) {
+                        return true;
+                    }
+                } catch (InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                }
+                refuse(runnable);
+                return false;
+            default:
+                refuse(runnable);
+                return false;
+        }
+    }
+
+
+    /**
+     * Free slot of a callback leaving the queue
+     */
+    private void dequeued() {
+        depth.decrementAndGet();
+        if (permits != null) {
+            permits.release();
+        }
+    }
+
+
+    /**
+     * Count and report refused callback
+     *
+     * @param runnable callback
+     */
+    private void refuse(Runnable runnable) {
+        dropped.increment();
+        if (overflowed != null) {
+            overflowed.accept(runnable);
+        }
+    }
+
+
+    /**
+     * Report failing callback
+     *
+     * @param runnable callback
+     * @param failure  its failure
+     */
+    private void fail(Runnable runnable, Throwable failure) {
+        BiConsumer<Runnable, Throwable> handler = failed;
+        if (handler != null) {
+            handler.accept(runnable, failure);
+            return;
+        }
+        Thread thread = Thread.currentThread();
+        thread.getUncaughtExceptionHandler().uncaughtException(thread, failure);
+    }
+
+
+    /**
+     * Pending callback count
+     *
+     * @return int
+     */
+    public int size() {
+        return depth.get();
+    }
+
+
+    /**
+     * Callbacks dropped or rejected by overflow
+     *
+     * @return long
+     */
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+
+    /**
+     * mailbox retired?
+     *
+     * @return boolean
+     */
+    public boolean isRetired() {
+        return state.get() == RETIRED;
+    }
+
+
+    /**
+     * mailbox empty?
+     *
+     * @return boolean
+     */
+    public boolean isEmpty() {
+        return queue.isEmpty();
+    }
+
+
+    /**
+     * Drain pending callbacks, only called by the thread owning the drain claim
+     * <p>
+     * A failing callback is reported to the failure handler and the drain goes on, so a callback queued by
+     * one caller never fails another caller draining it inline, such as a periodic timer task.
+     */
+    @Override
+    public void run() {
+        try {
+            Runnable runnable;
+            for (int i = 0; i < throughput && (runnable = queue.poll()) != null; i++) {
+                dequeued();
+                try {
+                    runnable.run();
+                } catch (Throwable throwable) {
+                    fail(runnable, throwable);
+                }
+            }
+        } finally {
+            finish();
+        }
+    }
+
+
+    /**
+     * Retire mailbox, queued callbacks still run and later ones are refused
+     * <p>
+     * An idle mailbox retires at once, a draining one when its drain finds the queue empty.
+     *
+     * @param retired called once retired, such as unlinking the mailbox, nullable
+     */
+    public void retire(Runnable retired) {
+        this.retired = retired;
+        for (; ; ) {
+            int current = state.get();
+            if (current == IDLE) {
+                if (state.compareAndSet(IDLE, RETIRING)) {
+                    finish();
+                    return;
+                }
+            } else if (current == RUNNING) {
+                if (state.compareAndSet(RUNNING, RETIRING)) {
+                    return;
+                }
+            } else {
+                return;
+            }
+        }
+    }
+
+
+    /**
+     * End claimed drain, resubmit when callbacks remain
+     */
+    private void finish() {
+        if (state.compareAndSet(RUNNING, IDLE)) {
+            if (!queue.isEmpty() && state.compareAndSet(IDLE, RUNNING)) {
+                submit();
+            }
+        } else if (!queue.isEmpty()) {
+            submit();
+        } else {
+            terminate();
+        }
+    }
+
+
+    /**
+     * Enter retired state, refuse callbacks that raced it
+     */
+    private void terminate() {
+        state.set(RETIRED);
+        Runnable runnable;
+        while ((runnable = queue.poll()) != null) {
+            dequeued();
+            refuse(runnable);
+        }
+        Runnable callback = retired;
+        if (callback != null) {
+            callback.run();
+        }
+    }
+
+
+    /**
+     * Give up claimed drain without draining, queued callbacks wait for the next claim,
+     * a retiring mailbox retires and refuses them
+     */
+    public void release() {
+        if (!state.compareAndSet(RUNNING, IDLE) && state.get() == RETIRING) {
+            terminate();
+        }
+    }
+
+
+    /**
+     * Submit claimed drain to executor, release claim when executor refuses it
+     */
+    public void submit() {
+        try {
+            executor.execute(this);
+        } catch (RejectedExecutionException exception) {
+            release();
+            throw exception;
+        }
+    }
+}
@@ -0,0 +1,348 @@
+package com.meteorcat.mix.core.event;
+
+import com.meteorcat.mix.core.metrics.LatencyHistogram;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics of one event key
+ *
+ * @author MeteorCat
+ */
+public class EventMetric {
+
+    /**
+     * Submit to start wait
+     */
+    private final LatencyHistogram wait = new LatencyHistogram();
+
+    /**
+     * Execution time
+     */
+    private final LatencyHistogram run = new LatencyHistogram();
+
+    /**
+     * synchronized(owner) acquire time, a one-owner batch samples it on its first callback only
+     */
+    private final LatencyHistogram contention = new LatencyHistogram();
+
+    /**
+     * Failed executions
+     */
+    private final LongAdder errors = new LongAdder();
+
+    /**
+     * Submitted and not yet started
+     */
+    private final LongAdder queued = new LongAdder();
+
+    /**
+     * Callbacks running now, every callback counts
+     */
+    private final LongAdder running = new LongAdder();
+
+    /**
+     * Owners with a callback running now, each owner counts once
+     */
+    private final LongAdder active = new LongAdder();
+
+    /**
+     * Callbacks running now by owner, present only while above zero
+     */
+    private final Map<Object, Integer> owners = new ConcurrentHashMap<>();
+
+
+    /**
+     * Wrap callback submitted now
+     *
+     * @param owner    Event owner
+     * @param runnable callback
+     * @param total    monitor running counter
+     * @return Timed
+     */
+    Timed timed(Object owner, Runnable runnable, LongAdder total) {
+        queued.increment();
+        return new Timed(this, owner, runnable, total);
+    }
+
+
+    /**
+     * owner callback started, its first one activates the owner
+     *
+     * @param owner Event owner
+     */
+    private void enter(Object owner) {
+        if (owners.merge(owner, 1, Integer::sum) == 1) {
+            active.increment();
+        }
+    }
+
+
+    /**
+     * owner callback ended, its last one deactivates the owner
+     *
+     * @param owner Event owner
+     */
+    private void leave(Object owner) {
+        if (owners.computeIfPresent(owner, (k, v) -> v == 1 ? null : v - 1) == null) {
+            active.decrement();
+        }
+    }
+
+
+    /**
+     * Copy current state
+     *
+     * @return Snapshot
+     */
+    public Snapshot snapshot() {
+        return new Snapshot(wait.snapshot(), run.snapshot(), contention.snapshot(),
+                errors.sum(), queued.sum(), running.sum(), active.sum());
+    }
+
+
+    /**
+     * Timed callback
+     */
+    static final class Timed implements Runnable {
+
+        /**
+         * owner metric
+         */
+        private final EventMetric metric;
+
+        /**
+         * Event owner
+         */
+        private final Object owner;
+
+        /**
+         * callback
+         */
+        private final Runnable runnable;
+
+        /**
+         * monitor running counter
+         */
+        private final LongAdder total;
+
+        /**
+         * submit time
+         */
+        private final long submitted = System.nanoTime();
+
+        /**
+         * owner lock requested time, 0 in mailbox mode
+         */
+        private long locking = 0L;
+
+        /**
+         * never started?
+         */
+        private boolean pending = true;
+
+
+        /**
+         * Construct Method
+         *
+         * @param metric   owner metric
+         * @param owner    Event owner
+         * @param runnable callback
+         * @param total    monitor running counter
+         */
+        Timed(EventMetric metric, Object owner, Runnable runnable, LongAdder total) {
+            this.metric = metric;
+            this.owner = owner;
+            this.runnable = runnable;
+            this.total = total;
+        }
+
+
+        /**
+         * callback
+         *
+         * @return Runnable
+         */
+        Runnable getRunnable() {
+            return runnable;
+        }
+
+
+        /**
+         * mark owner lock requested
+         */
+        void locking() {
+            locking = System.nanoTime();
+        }
+
+
+        /**
+         * callback refused, never runs
+         */
+        void discard() {
+            if (pending) {
+                pending = false;
+                metric.queued.decrement();
+            }
+        }
+
+
+        /**
+         * record and run callback
+         */
+        @Override
+        public void run() {
+            long start = System.nanoTime();
+            pending = false;
+            metric.queued.decrement();
+            metric.wait.record(start - submitted);
+            if (locking != 0L) {
+                metric.contention.record(start - locking);
+            }
+            metric.running.increment();
+            metric.enter(owner);
+            total.increment();
+            try {
+                runnable.run();
+            } catch (RuntimeException exception) {
+                metric.errors.increment();
+                throw exception;
+            } finally {
+                metric.run.record(System.nanoTime() - start);
+                metric.running.decrement();
+                metric.leave(owner);
+                total.decrement();
+            }
+        }
+    }
+
+
+    /**
+     * Event metric snapshot
+     */
+    public static class Snapshot {
+
+        /**
+         * Submit to start wait (nanoseconds)
+         */
+        private final LatencyHistogram.Snapshot wait;
+
+        /**
+         * Execution time (nanoseconds)
+         */
+        private final LatencyHistogram.Snapshot run;
+
+        /**
+         * synchronized(owner) acquire time (nanoseconds)
+         */
+        private final LatencyHistogram.Snapshot contention;
+
+        /**
+         * Failed executions
+         */
+        private final long errors;
+
+        /**
+         * Submitted and not yet started
+         */
+        private final long queued;
+
+        /**
+         * Callbacks running now
+         */
+        private final long running;
+
+        /**
+         * Owners with a callback running now
+         */
+        private final long active;
+
+
+        /**
+         * Construct Method
+         *
+         * @param wait       wait histogram
+         * @param run        execution histogram
+         * @param contention contention histogram
+         * @param errors     failed executions
+         * @param queued     queue depth
+         * @param running    callbacks running now
+         * @param active     owners with a callback running now
+         */
+        Snapshot(LatencyHistogram.Snapshot wait, LatencyHistogram.Snapshot run, LatencyHistogram.Snapshot contention,
+                 long errors, long queued, long running, long active) {
+            this.wait = wait;
+            this.run = run;
+            this.contention = contention;
+            this.errors = errors;
+            this.queued = queued;
+            this.running = running;
+            this.active = active;
+        }
+
+        /**
+         * Submit to start wait (nanoseconds)
+         *
+         * @return LatencyHistogram.Snapshot
+         */
+        public LatencyHistogram.Snapshot getWait() {
+            return wait;
+        }
+
+        /**
+         * Execution time (nanoseconds)
+         *
+         * @return LatencyHistogram.Snapshot
+         */
+        public LatencyHistogram.Snapshot getRun() {
+            return run;
+        }
+
+        /**
+         * synchronized(owner) acquire time (nanoseconds)
+         *
+         * @return LatencyHistogram.Snapshot
+         */
+        public LatencyHistogram.Snapshot getContention() {
+            return contention;
+        }
+
+        /**
+         * Failed executions
+         *
+         * @return long
+         */
+        public long getErrors() {
+            return errors;
+        }
+
+        /**
+         * Submitted and not yet started
+         *
+         * @return long
+         */
+        public long getQueued() {
+            return queued;
+        }
+
+        /**
+         * Callbacks running now
+         *
+         * @return long
+         */
+        public long getRunning() {
+            return running;
+        }
+
+        /**
+         * Owners with a callback running now, each owner counts once however many it runs
+         *
+         * @return long
+         */
+        public long getActive() {
+            return active;
+        }
+    }
+}
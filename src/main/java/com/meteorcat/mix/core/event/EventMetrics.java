@@ -0,0 +1,83 @@
+package com.meteorcat.mix.core.event;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Event monitor metrics, keyed by event
+ * <p>
+ * Recording only touches lock-free histograms and striped counters, {@link #snapshot()} is for exporters to poll.
+ *
+ * @author MeteorCat
+ */
+public class EventMetrics<_Event> {
+
+    /**
+     * Event metrics
+     */
+    private final Map<_Event, EventMetric> metrics = new ConcurrentHashMap<>();
+
+    /**
+     * Callbacks running now, every event
+     */
+    private final LongAdder running = new LongAdder();
+
+
+    /**
+     * get or create event metric
+     *
+     * @param event Event name
+     * @return EventMetric
+     */
+    public EventMetric metric(_Event event) {
+        EventMetric metric = metrics.get(event);
+        return metric != null ? metric : metrics.computeIfAbsent(event, k -> new EventMetric());
+    }
+
+
+    /**
+     * Wrap callback of event submitted now
+     *
+     * @param owner    Event owner
+     * @param event    Event name
+     * @param runnable callback
+     * @return Runnable
+     */
+    Runnable timed(Object owner, _Event event, Runnable runnable) {
+        return metric(event).timed(owner, runnable, running);
+    }
+
+
+    /**
+     * Callbacks running now, every event
+     *
+     * @return long
+     */
+    public long getRunning() {
+        return running.sum();
+    }
+
+
+    /**
+     * Copy every event metric
+     *
+     * @return Map<_Event, EventMetric.Snapshot>
+     */
+    public Map<_Event, EventMetric.Snapshot> snapshot() {
+        Map<_Event, EventMetric.Snapshot> snapshots = new HashMap<>(metrics.size() * 2);
+        for (Map.Entry<_Event, EventMetric> entry : metrics.entrySet()) {
+            snapshots.put(entry.getKey(), entry.getValue().snapshot());
+        }
+        return snapshots;
+    }
+
+
+    /**
+     * Drop every event metric
+     */
+    public void clear() {
+        metrics.clear();
+    }
+}
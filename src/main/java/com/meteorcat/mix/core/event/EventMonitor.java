@@ -1,9 +1,9 @@
 package com.meteorcat.mix.core.event;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Optional;
+import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
 import static org.springframework.core.io.buffer.DefaultDataBufferFactory.DEFAULT_INITIAL_CAPACITY;
 
 /**
@@ -11,13 +11,99 @@ import static org.springframework.core.io.buffer.DefaultDataBufferFactory.DEFAUL
  *
  * @author MeteorCat
  */
-public class EventMonitor<_Owner, _Event> extends ScheduledThreadPoolExecutor implements IEventMonitor<_Owner, _Event> {
+public class EventMonitor<_Owner, _Event> extends ScheduledThreadPoolExecutor implements IEventMonitor<_Owner, _Event>, IEventTimer {
+
+    /**
+     * Minimum callbacks per batch task
+     * <p>
+     * In synchronized mode one contended owner stalls the rest of its chunk on the owner monitor,
+     * owners that block or hold their monitor long belong in mailbox mode.
+     */
+    public static final int MIN_BATCH_CHUNK = 64;
 
 
     /**
      * Events
      */
-    private final Map<_Owner, Map<_Event, Event>> events = new ConcurrentHashMap<>();
+    private volatile IEventRegistry<_Owner, _Event> events = new EventRegistry<>();
+
+
+    /**
+     * Owner mailboxes
+     */
+    private final Map<_Owner, EventMailbox> mailboxes = new ConcurrentHashMap<>();
+
+
+    /**
+     * Owner-serial mailbox mode?
+     */
+    private volatile boolean mailbox = false;
+
+
+    /**
+     * Mailbox callbacks drained before yielding the worker
+     */
+    private volatile int throughput = EventMailbox.DEFAULT_THROUGHPUT;
+
+
+    /**
+     * Max pending callbacks per owner mailbox
+     */
+    private volatile int capacity = Integer.MAX_VALUE;
+
+
+    /**
+     * Mailbox overflow policy
+     */
+    private volatile EventOverflow overflow = EventOverflow.REJECT;
+
+
+    /**
+     * BLOCK policy wait (nanoseconds)
+     */
+    private volatile long blockNanos = 0L;
+
+
+    /**
+     * Rejected callback handler
+     */
+    private volatile BiConsumer<_Owner, Runnable> rejected = null;
+
+
+    /**
+     * Coalesce duplicate pending executions?
+     */
+    private volatile boolean coalescing = false;
+
+
+    /**
+     * Executions merged into a pending one
+     */
+    private final LongAdder coalesced = new LongAdder();
+
+
+    /**
+     * Metrics, null when disabled
+     */
+    private volatile EventMetrics<_Event> metrics = null;
+
+
+    /**
+     * Mailbox drain executor, defaults to this pool
+     */
+    private volatile Executor executor = this;
+
+
+    /**
+     * Timer engine, defaults to this executor's delay queue
+     */
+    private volatile IEventTimer timer = this;
+
+
+    /**
+     * Timing wheel created and stopped by this monitor, null when none
+     */
+    private volatile EventTimingWheel wheel = null;
 
 
     /**
@@ -27,6 +113,7 @@ public class EventMonitor<_Owner, _Event> extends ScheduledThreadPoolExecutor im
      */
     public EventMonitor(int corePoolSize) {
         super(corePoolSize);
+        setRemoveOnCancelPolicy(true);
     }
 
     /**
@@ -37,6 +124,7 @@ public class EventMonitor<_Owner, _Event> extends ScheduledThreadPoolExecutor im
      */
     public EventMonitor(int corePoolSize, ThreadFactory threadFactory) {
         super(corePoolSize, threadFactory);
+        setRemoveOnCancelPolicy(true);
     }
 
     /**
@@ -47,6 +135,7 @@ public class EventMonitor<_Owner, _Event> extends ScheduledThreadPoolExecutor im
      */
     public EventMonitor(int corePoolSize, RejectedExecutionHandler handler) {
         super(corePoolSize, handler);
+        setRemoveOnCancelPolicy(true);
     }
 
     /**
@@ -58,6 +147,339 @@ public class EventMonitor<_Owner, _Event> extends ScheduledThreadPoolExecutor im
      */
     public EventMonitor(int corePoolSize, ThreadFactory threadFactory, RejectedExecutionHandler handler) {
         super(corePoolSize, threadFactory, handler);
+        setRemoveOnCancelPolicy(true);
+    }
+
+
+    /**
+     * owner-serial mailbox mode?
+     *
+     * @return boolean
+     */
+    public boolean isMailbox() {
+        return mailbox;
+    }
+
+
+    /**
+     * Switch owner-serial mailbox mode, must be configured before any event dispatch
+     * <p>
+     * Mailbox mode queues owner callbacks instead of blocking workers on synchronized(owner).
+     *
+     * @param mailbox enable mailbox
+     * @throws IllegalStateException disabling mailbox mode while mailboxes are bounded
+     */
+    public void setMailbox(boolean mailbox) {
+        if (!mailbox && capacity != Integer.MAX_VALUE) {
+            throw new IllegalStateException("bounded mailboxes need mailbox mode, synchronized mode is unbounded");
+        }
+        this.mailbox = mailbox;
+    }
+
+
+    /**
+     * Set mailbox callbacks drained before yielding the worker
+     *
+     * @param throughput callback count
+     */
+    public void setThroughput(int throughput) {
+        if (throughput <= 0) {
+            throw new IllegalArgumentException("throughput must be positive");
+        }
+        this.throughput = throughput;
+    }
+
+
+    /**
+     * Bound owner mailboxes, must be configured after {@link #setMailbox(boolean)} and before any event dispatch
+     *
+     * @param capacity max pending callbacks per owner
+     * @param overflow overflow policy, BLOCK waits without timeout limit
+     * @throws IllegalStateException mailbox mode is off
+     */
+    public void setMailboxBound(int capacity, EventOverflow overflow) {
+        setMailboxBound(capacity, overflow, Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+    }
+
+
+    /**
+     * Bound owner mailboxes, must be configured after {@link #setMailbox(boolean)} and before any event dispatch
+     * <p>
+     * Synchronized mode has no per-owner queue to bound, so it refuses the configuration.
+     * BLOCK also parks pool threads firing timers, keep its timeout short.
+     *
+     * @param capacity max pending callbacks per owner
+     * @param overflow overflow policy
+     * @param timeout  BLOCK policy wait
+     * @param unit     BLOCK policy timeunit
+     * @throws IllegalStateException mailbox mode is off
+     */
+    public void setMailboxBound(int capacity, EventOverflow overflow, long timeout, TimeUnit unit) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        if (!mailbox) {
+            throw new IllegalStateException("bounded mailboxes need mailbox mode, call setMailbox(true) first");
+        }
+        this.capacity = capacity;
+        this.overflow = overflow;
+        this.blockNanos = unit.toNanos(timeout);
+    }
+
+
+    /**
+     * Set handler receiving callbacks refused by REJECT or timed out BLOCK policy
+     *
+     * @param rejected handler
+     */
+    public void setRejectedHandler(BiConsumer<_Owner, Runnable> rejected) {
+        this.rejected = rejected;
+    }
+
+
+    /**
+     * Pending callbacks of owner mailbox
+     *
+     * @param owner Event owner
+     * @return int
+     */
+    public int getDepth(_Owner owner) {
+        EventMailbox box = mailboxes.get(owner);
+        return box == null ? 0 : box.size();
+    }
+
+
+    /**
+     * Pending callbacks of every non-empty owner mailbox
+     *
+     * @return Map<_Owner, Integer>
+     */
+    public Map<_Owner, Integer> getDepths() {
+        Map<_Owner, Integer> depths = new HashMap<>();
+        for (Map.Entry<_Owner, EventMailbox> entry : mailboxes.entrySet()) {
+            int depth = entry.getValue().size();
+            if (depth > 0) {
+                depths.put(entry.getKey(), depth);
+            }
+        }
+        return depths;
+    }
+
+
+    /**
+     * coalescing mode?
+     *
+     * @return boolean
+     */
+    public boolean isCoalescing() {
+        return coalescing;
+    }
+
+
+    /**
+     * Switch coalescing mode, must be configured before any putEvent
+     * <p>
+     * execute of an (owner, event) whose execution is queued and not yet started merges into it.
+     * Scheduled callbacks are never coalesced. The pending flag lives in the Event, so while coalescing
+     * an Event instance is bound to a single registration, see {@link #putEvent(Object, Object, Event, int)}.
+     *
+     * @param coalescing enable coalescing
+     */
+    public void setCoalescing(boolean coalescing) {
+        this.coalescing = coalescing;
+    }
+
+
+    /**
+     * Executions merged into a pending one
+     *
+     * @return long
+     */
+    public long getCoalescedCount() {
+        return coalesced.sum();
+    }
+
+
+    /**
+     * Reset coalesced counter
+     *
+     * @return long count before reset
+     */
+    public long resetCoalescedCount() {
+        return coalesced.sumThenReset();
+    }
+
+
+    /**
+     * get metrics
+     *
+     * @return Optional<EventMetrics<_Event>>
+     */
+    public Optional<EventMetrics<_Event>> getMetrics() {
+        return Optional.ofNullable(metrics);
+    }
+
+
+    /**
+     * Switch metrics, disabled metrics cost nothing on dispatch
+     * <p>
+     * Records per event wait, execution and owner lock contention histograms, queued and running callback counts.
+     *
+     * @param enable enable metrics
+     */
+    public void setMetrics(boolean enable) {
+        this.metrics = enable ? new EventMetrics<>() : null;
+    }
+
+
+    /**
+     * Callbacks waiting in pool queue and owner mailboxes
+     *
+     * @return int
+     */
+    public int getQueueDepth() {
+        int depth = getQueue().size();
+        for (EventMailbox box : mailboxes.values()) {
+            depth += box.size();
+        }
+        return depth;
+    }
+
+
+    /**
+     * get mailbox drain executor
+     *
+     * @return Executor
+     */
+    public Executor getExecutor() {
+        return executor;
+    }
+
+
+    /**
+     * Set mailbox drain executor, must be configured before any event dispatch
+     * <p>
+     * Pool threads keep firing timers, mailbox callbacks are handed to this executor.
+     *
+     * @param executor Executor
+     */
+    public void setExecutor(Executor executor) {
+        this.executor = executor == null ? this : executor;
+    }
+
+
+    /**
+     * get timer engine
+     *
+     * @return IEventTimer
+     */
+    public IEventTimer getTimer() {
+        return timer;
+    }
+
+
+    /**
+     * Set timer engine, such as a shared EventTimingWheel, must be configured before any event schedule
+     * <p>
+     * The caller keeps owning the timer, monitor shutdown does not stop it.
+     *
+     * @param timer IEventTimer
+     */
+    public void setTimer(IEventTimer timer) {
+        this.timer = timer == null ? this : timer;
+        EventTimingWheel owned = wheel;
+        wheel = null;
+        if (owned != null && owned != timer) {
+            owned.shutdown();
+        }
+    }
+
+
+    /**
+     * Use a timing wheel with default tick and size, owned by the monitor
+     */
+    public void setTimingWheel() {
+        setTimingWheel(EventTimingWheel.DEFAULT_TICK_MILLIS, TimeUnit.MILLISECONDS, EventTimingWheel.DEFAULT_WHEEL_SIZE);
+    }
+
+
+    /**
+     * Use a timing wheel owned by the monitor, expired callbacks run on this pool and
+     * shutdown or shutdownNow stops it, must be configured before any event schedule
+     *
+     * @param tick      tick duration
+     * @param unit      tick timeunit
+     * @param wheelSize bucket count
+     */
+    public void setTimingWheel(long tick, TimeUnit unit, int wheelSize) {
+        EventTimingWheel created = new EventTimingWheel(this, tick, unit, wheelSize);
+        setTimer(created);
+        wheel = created;
+    }
+
+
+    /**
+     * Shutdown pool and owned timing wheel
+     */
+    @Override
+    public void shutdown() {
+        super.shutdown();
+        stopWheel();
+    }
+
+
+    /**
+     * Shutdown pool and owned timing wheel now
+     *
+     * @return List<Runnable> never started tasks
+     */
+    @Override
+    public List<Runnable> shutdownNow() {
+        List<Runnable> runnables = super.shutdownNow();
+        stopWheel();
+        return runnables;
+    }
+
+
+    /**
+     * Stop owned timing wheel, its pending timeouts are cancelled
+     */
+    private void stopWheel() {
+        EventTimingWheel owned = wheel;
+        if (owned != null) {
+            owned.shutdown();
+        }
+    }
+
+
+    /**
+     * get event registry
+     *
+     * @return IEventRegistry<_Owner, _Event>
+     */
+    public IEventRegistry<_Owner, _Event> getRegistry() {
+        return events;
+    }
+
+
+    /**
+     * Set event registry, such as LongEventRegistry, must be configured before any putEvent
+     *
+     * @param registry IEventRegistry<_Owner, _Event>
+     */
+    public void setRegistry(IEventRegistry<_Owner, _Event> registry) {
+        this.events = registry == null ? new EventRegistry<>() : registry;
+    }
+
+
+    /**
+     * get owner mailbox
+     *
+     * @param owner Event owner
+     * @return Optional<EventMailbox>
+     */
+    public Optional<EventMailbox> getMailbox(_Owner owner) {
+        return Optional.ofNullable(mailboxes.get(owner));
     }
 
 
@@ -79,7 +501,7 @@ public class EventMonitor<_Owner, _Event> extends ScheduledThreadPoolExecutor im
      * @return boolean
      */
     public boolean containsKey(_Owner owner, _Event event) {
-        return events.containsKey(owner) && events.get(owner).containsKey(event);
+        return events.containsKey(owner, event);
     }
 
 
@@ -90,23 +512,32 @@ public class EventMonitor<_Owner, _Event> extends ScheduledThreadPoolExecutor im
      * @return Optional<Map < _Event, Runnable>>
      */
     public Optional<Map<_Event, Event>> getEvent(_Owner owner) {
-        return containsKey(owner) ? Optional.of(events.get(owner)) : Optional.empty();
+        return Optional.ofNullable(events.get(owner));
     }
 
 
     /**
      * add event runnable
+     * <p>
+     * One Event instance may serve many registrations, such as a shared handler. In coalescing mode its pending
+     * flag belongs to one (owner, event) registration, so registering it twice is refused.
      *
      * @param owner    Event owner
      * @param event    Event name
      * @param e        Runnable
      * @param ownerCap Event capacity
+     * @throws IllegalStateException coalescing mode and Event already registered under another owner or name
      */
     public void putEvent(_Owner owner, _Event event, Event e, int ownerCap) {
-        if (!events.containsKey(owner)) {
-            events.put(owner, new HashMap<>(ownerCap));
+        Map.Entry<_Owner, _Event> registration = Map.entry(owner, event);
+        if (coalescing) {
+            e.bind(registration);
+        }
+        Event previous = LongEventRegistry.lookup(events, owner, event);
+        events.put(owner, event, e, ownerCap);
+        if (previous != null && previous != e) {
+            previous.unbind(registration);
         }
-        events.get(owner).put(event, e);
     }
 
 
@@ -130,11 +561,7 @@ public class EventMonitor<_Owner, _Event> extends ScheduledThreadPoolExecutor im
      * @return Runnable
      */
     public Optional<Event> getEvent(_Owner owner, _Event event) {
-        if (!events.containsKey(owner)) {
-            return Optional.empty();
-        }
-        Map<_Event, Event> runnable = events.get(owner);
-        return Optional.ofNullable(runnable.get(event));
+        return Optional.ofNullable(LongEventRegistry.lookup(events, owner, event));
     }
 
 
@@ -145,39 +572,208 @@ public class EventMonitor<_Owner, _Event> extends ScheduledThreadPoolExecutor im
      * @param event Event name
      */
     public void remove(_Owner owner, _Event event) {
-        synchronized (owner) {
-            Optional<Event> runnableOptional = getEvent(owner, event);
-            runnableOptional.ifPresent(e -> {
-                if (e.getFuture() != null) {
-                    e.getFuture().cancel(true);
-                }
-                events.get(owner).remove(event);
-            });
+        Event e = events.remove(owner, event);
+        if (e == null) {
+            return;
+        }
+        e.unbind(Map.entry(owner, event));
+        if (e.getFuture() != null) {
+            e.getFuture().cancel(true);
         }
     }
 
 
     /**
      * Remove event runnable
+     * <p>
+     * The owner mailbox retires: callbacks already queued still run, it is unlinked once drained,
+     * so a later mailbox of the same owner never drains beside it. Callbacks racing the retirement of an owner
+     * registered again move to its new mailbox, possibly behind callbacks offered after them.
      *
      * @param owner Event owner
      */
     public void remove(_Owner owner) {
-        synchronized (owner) {
-            Optional<Map<_Event, Event>> runnableOptional = getEvent(owner);
-            runnableOptional.ifPresent(list -> {
-                for (Map.Entry<_Event, Event> e : list.entrySet()) {
-                    ScheduledFuture<?> future = e.getValue().getFuture();
-                    if (future != null) {
-                        future.cancel(true);
-                    }
-                    events.get(owner).remove(e.getKey());
+        Map<_Event, Event> removed = events.remove(owner);
+        if (removed != null) {
+            for (Map.Entry<_Event, Event> entry : removed.entrySet()) {
+                Event e = entry.getValue();
+                e.unbind(Map.entry(owner, entry.getKey()));
+                ScheduledFuture<?> future = e.getFuture();
+                if (future != null) {
+                    future.cancel(true);
                 }
-            });
+            }
+        }
+        EventMailbox box = mailboxes.get(owner);
+        if (box != null) {
+            box.retire(() -> mailboxes.remove(owner, box));
         }
     }
 
 
+    /**
+     * Run callback serialized by owner, caller must be a worker thread
+     * <p>
+     * In mailbox mode a failing callback is reported to {@link #afterExecute(Runnable, Throwable)} and never
+     * reaches the thread draining the mailbox, which may run callbacks of other events of the owner.
+     *
+     * @param owner    Event owner
+     * @param runnable callback
+     */
+    protected void invoke(_Owner owner, Runnable runnable) {
+        if (mailbox) {
+            EventMailbox box = mailbox(owner);
+            if (executor == this) {
+                box.invoke(runnable);
+            } else {
+                box.execute(runnable);
+            }
+            return;
+        }
+        if (runnable instanceof EventMetric.Timed) {
+            ((EventMetric.Timed) runnable).locking();
+        }
+        synchronized (owner) {
+            runnable.run();
+        }
+    }
+
+
+    /**
+     * get or create owner mailbox, a retired one is replaced
+     *
+     * @param owner Event owner
+     * @return EventMailbox
+     */
+    private EventMailbox mailbox(_Owner owner) {
+        for (; ; ) {
+            EventMailbox box = mailboxes.get(owner);
+            if (box == null) {
+                box = mailboxes.computeIfAbsent(owner, this::create);
+            }
+            if (!box.isRetired()) {
+                return box;
+            }
+            // retired and not unlinked yet, replace it for the live owner
+            mailboxes.remove(owner, box);
+        }
+    }
+
+
+    /**
+     * Create owner mailbox
+     *
+     * @param owner Event owner
+     * @return EventMailbox
+     */
+    private EventMailbox create(_Owner owner) {
+        EventMailbox[] created = new EventMailbox[1];
+        created[0] = new EventMailbox(executor, throughput, capacity, overflow, blockNanos,
+                runnable -> refused(owner, created[0], runnable), this::afterExecute);
+        return created[0];
+    }
+
+
+    /**
+     * Callback refused by owner mailbox, a retired one hands callbacks of a registered owner to its replacement
+     *
+     * @param owner    Event owner
+     * @param box      refusing mailbox
+     * @param runnable callback
+     */
+    private void refused(_Owner owner, EventMailbox box, Runnable runnable) {
+        if (!box.isRetired() || !events.containsKey(owner)) {
+            overflowed(owner, runnable);
+            return;
+        }
+        try {
+            mailbox(owner).execute(runnable);
+        } catch (RejectedExecutionException exception) {
+            // still queued, runs with the next drain of the owner
+            unmark(runnable);
+        }
+    }
+
+
+    /**
+     * Callback refused by a bounded mailbox
+     *
+     * @param owner    Event owner
+     * @param runnable callback
+     */
+    private void overflowed(_Owner owner, Runnable runnable) {
+        if (runnable instanceof EventMetric.Timed) {
+            ((EventMetric.Timed) runnable).discard();
+            runnable = ((EventMetric.Timed) runnable).getRunnable();
+        }
+        unmark(runnable);
+        if (runnable instanceof Ask) {
+            ((Ask<?, ?>) runnable).refuse(new RejectedExecutionException(String.format("ask of %s refused by its mailbox", owner)));
+        }
+        BiConsumer<_Owner, Runnable> handler = rejected;
+        if (handler != null && (overflow == EventOverflow.REJECT || overflow == EventOverflow.BLOCK)) {
+            handler.accept(owner, runnable);
+        }
+    }
+
+
+    /**
+     * Callback refused by the executor, never runs
+     *
+     * @param runnable callback
+     */
+    private static void refused(Runnable runnable) {
+        if (runnable instanceof EventMetric.Timed) {
+            ((EventMetric.Timed) runnable).discard();
+        }
+        unmark(runnable);
+    }
+
+
+    /**
+     * Release coalescing flag of a callback that was not handed over, so later executes are not merged into it
+     *
+     * @param runnable callback
+     */
+    private static void unmark(Runnable runnable) {
+        Event.release(runnable instanceof EventMetric.Timed ? ((EventMetric.Timed) runnable).getRunnable() : runnable);
+    }
+
+
+    /**
+     * Resolve callback for execute
+     *
+     * @param owner Event owner
+     * @param event Event name
+     * @param e     Event
+     * @return Runnable|null when merged into a pending execution
+     */
+    private Runnable dispatchable(_Owner owner, _Event event, Event e) {
+        if (!coalescing) {
+            return timed(owner, event, e.getTuple());
+        }
+        if (e.markPending()) {
+            return timed(owner, event, e.getCoalescedTuple());
+        }
+        coalesced.increment();
+        return null;
+    }
+
+
+    /**
+     * Wrap callback submitted now when metrics enabled
+     *
+     * @param owner    Event owner
+     * @param event    Event name
+     * @param runnable callback
+     * @return Runnable
+     */
+    private Runnable timed(_Owner owner, _Event event, Runnable runnable) {
+        EventMetrics<_Event> m = metrics;
+        return m == null ? runnable : m.timed(owner, event, runnable);
+    }
+
+
     /**
      * Event execute
      *
@@ -186,17 +782,247 @@ public class EventMonitor<_Owner, _Event> extends ScheduledThreadPoolExecutor im
      */
     @Override
     public void execute(_Owner owner, _Event event) {
-        Optional<Event> e = getEvent(owner, event);
-        if (e.isEmpty()) {
+        Event e = LongEventRegistry.lookup(events, owner, event);
+        if (e == null) {
+            return;
+        }
+        Runnable runnable = dispatchable(owner, event, e);
+        if (runnable == null) {
             return;
         }
-        execute(() -> {
-            synchronized (owner) {
-                e.get().getTuple().run();
+        if (mailbox) {
+            try {
+                mailbox(owner).execute(runnable);
+            } catch (RejectedExecutionException exception) {
+                // still queued, runs with the next drain of the owner
+                unmark(runnable);
+                throw exception;
+            }
+            return;
+        }
+        try {
+            execute(() -> invoke(owner, runnable));
+        } catch (RejectedExecutionException exception) {
+            refused(runnable);
+            throw exception;
+        }
+    }
+
+    /**
+     * Event execute for many owners, resolved in one pass and submitted as chunked tasks
+     * <p>
+     * Every callback of a chunk runs. In synchronized mode the first failure is rethrown afterwards and
+     * a contended owner delays the remaining owners of its chunk, see {@link #MIN_BATCH_CHUNK};
+     * mailbox callbacks report failures like any drain.
+     *
+     * @param owners Event owners
+     * @param event  Event name
+     */
+    @Override
+    public void executeAll(Collection<_Owner> owners, _Event event) {
+        int size = owners.size();
+        if (size == 0) {
+            return;
+        }
+
+        List<Object> targets = new ArrayList<>(size);
+        List<Runnable> runnables = new ArrayList<>(size);
+        for (_Owner owner : owners) {
+            Event e = LongEventRegistry.lookup(events, owner, event);
+            Runnable runnable = e == null ? null : dispatchable(owner, event, e);
+            if (runnable == null) {
+                continue;
+            }
+            if (mailbox) {
+                EventMailbox box = mailbox(owner);
+                if (box.offer(runnable)) {
+                    targets.add(box);
+                    runnables.add(runnable);
+                }
+            } else {
+                targets.add(owner);
+                runnables.add(runnable);
+            }
+        }
+
+        int count = targets.size();
+        if (mailbox && executor != this) {
+            // foreign drain executor (virtual threads): one drain per mailbox, blocking owners never stall a chunk
+            for (int i = 0; i < count; i++) {
+                try {
+                    ((EventMailbox) targets.get(i)).submit();
+                } catch (RejectedExecutionException exception) {
+                    release(targets, runnables, i + 1, count);
+                    unmark(runnables.get(i));
+                    throw exception;
+                }
+            }
+            return;
+        }
+        int chunk = Math.max(MIN_BATCH_CHUNK, (count + getCorePoolSize() - 1) / Math.max(1, getCorePoolSize()));
+        for (int from = 0; from < count; from += chunk) {
+            int start = from;
+            int end = Math.min(count, from + chunk);
+            try {
+                if (mailbox) {
+                    execute(() -> {
+                        Throwable failure = null;
+                        for (int i = start; i < end; i++) {
+                            try {
+                                ((EventMailbox) targets.get(i)).run();
+                            } catch (Throwable throwable) {
+                                failure = failed(failure, throwable);
+                            }
+                        }
+                        rethrow(failure);
+                    });
+                } else {
+                    execute(() -> {
+                        Throwable failure = null;
+                        for (int i = start; i < end; i++) {
+                            @SuppressWarnings("unchecked")
+                            _Owner owner = (_Owner) targets.get(i);
+                            try {
+                                invoke(owner, runnables.get(i));
+                            } catch (Throwable throwable) {
+                                failure = failed(failure, throwable);
+                            }
+                        }
+                        rethrow(failure);
+                    });
+                }
+            } catch (RejectedExecutionException exception) {
+                if (mailbox) {
+                    release(targets, runnables, start, count);
+                } else {
+                    for (int i = start; i < count; i++) {
+                        refused(runnables.get(i));
+                    }
+                }
+                throw exception;
+            }
+        }
+    }
+
+
+    /**
+     * Give up drain claims of mailboxes whose drain never got submitted
+     *
+     * @param targets   claimed mailboxes
+     * @param runnables callbacks that claimed them, still queued
+     * @param from      first unsubmitted index
+     * @param to        end index, exclusive
+     */
+    private static void release(List<Object> targets, List<Runnable> runnables, int from, int to) {
+        for (int i = from; i < to; i++) {
+            ((EventMailbox) targets.get(i)).release();
+            unmark(runnables.get(i));
+        }
+    }
+
+
+    /**
+     * Keep first failure of a batch, later ones become suppressed
+     *
+     * @param first first failure, nullable
+     * @param next  next failure
+     * @return Throwable
+     */
+    static Throwable failed(Throwable first, Throwable next) {
+        if (first == null) {
+            return next;
+        }
+        if (first != next) {
+            first.addSuppressed(next);
+        }
+        return first;
+    }
+
+
+    /**
+     * Rethrow batch failure after every callback ran, so it reaches the worker like a plain execute
+     *
+     * @param failure first failure, nullable
+     */
+    static void rethrow(Throwable failure) {
+        if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        }
+        if (failure instanceof Error) {
+            throw (Error) failure;
+        }
+        if (failure != null) {
+            throw new CompletionException(failure);
+        }
+    }
+
+
+    /**
+     * Event execute for one owner, callbacks run in collection order as one task
+     *
+     * @param owner  Event owner
+     * @param events Event names
+     */
+    @Override
+    public void executeAll(_Owner owner, Collection<_Event> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+
+        List<Runnable> runnables = new ArrayList<>(events.size());
+        this.events.forEach(owner, events, (event, e) -> {
+            Runnable runnable = dispatchable(owner, event, e);
+            if (runnable != null) {
+                runnables.add(runnable);
             }
         });
+        if (runnables.isEmpty()) {
+            return;
+        }
+
+        if (mailbox) {
+            EventMailbox box = mailbox(owner);
+            boolean claimed = false;
+            for (Runnable runnable : runnables) {
+                claimed |= box.offer(runnable);
+            }
+            if (claimed) {
+                try {
+                    box.submit();
+                } catch (RejectedExecutionException exception) {
+                    runnables.forEach(EventMonitor::unmark);
+                    throw exception;
+                }
+            }
+            return;
+        }
+        Runnable batch = () -> {
+            Throwable failure = null;
+            for (Runnable runnable : runnables) {
+                try {
+                    runnable.run();
+                } catch (Throwable throwable) {
+                    failure = failed(failure, throwable);
+                }
+            }
+            rethrow(failure);
+        };
+        Runnable first = runnables.get(0);
+        try {
+            execute(() -> {
+                // the batch takes the owner lock once, its first callback samples the contention
+                if (first instanceof EventMetric.Timed) {
+                    ((EventMetric.Timed) first).locking();
+                }
+                invoke(owner, batch);
+            });
+        } catch (RejectedExecutionException exception) {
+            runnables.forEach(EventMonitor::refused);
+            throw exception;
+        }
     }
 
+
     /**
      * Monitor event schedule
      *
@@ -207,16 +1033,11 @@ public class EventMonitor<_Owner, _Event> extends ScheduledThreadPoolExecutor im
      */
     @Override
     public void schedule(_Owner owner, _Event event, long delay, TimeUnit unit) {
-        Optional<Event> e = getEvent(owner, event);
-        if (e.isEmpty()) {
+        Event runnable = LongEventRegistry.lookup(events, owner, event);
+        if (runnable == null) {
             return;
         }
-        Event runnable = e.get();
-        runnable.setFuture(schedule(()->{
-            synchronized (owner){
-                runnable.getTuple().run();
-            }
-        },delay,unit));
+        runnable.setFuture(timer.schedule(() -> invoke(owner, timed(owner, event, runnable.getTuple())), delay, unit));
     }
 
 
@@ -230,16 +1051,11 @@ public class EventMonitor<_Owner, _Event> extends ScheduledThreadPoolExecutor im
      */
     @Override
     public void scheduleAtFixedRate(_Owner owner, _Event event, long initialDelay, long period, TimeUnit unit) {
-        Optional<Event> e = getEvent(owner, event);
-        if (e.isEmpty()) {
+        Event runnable = LongEventRegistry.lookup(events, owner, event);
+        if (runnable == null) {
             return;
         }
-        Event runnable = e.get();
-        runnable.setFuture(scheduleAtFixedRate(()->{
-            synchronized (owner){
-                runnable.getTuple().run();
-            }
-        },initialDelay,period,unit));
+        runnable.setFuture(timer.scheduleAtFixedRate(() -> invoke(owner, timed(owner, event, runnable.getTuple())), initialDelay, period, unit));
     }
 
     /**
@@ -252,15 +1068,134 @@ public class EventMonitor<_Owner, _Event> extends ScheduledThreadPoolExecutor im
      */
     @Override
     public void scheduleWithFixedDelay(_Owner owner, _Event event, long initialDelay, long delay, TimeUnit unit) {
-        Optional<Event> e = getEvent(owner, event);
-        if (e.isEmpty()) {
+        Event runnable = LongEventRegistry.lookup(events, owner, event);
+        if (runnable == null) {
             return;
         }
-        Event runnable = e.get();
-        runnable.setFuture(scheduleWithFixedDelay(()->{
-            synchronized (owner){
-                runnable.getTuple().run();
+        runnable.setFuture(timer.scheduleWithFixedDelay(() -> invoke(owner, timed(owner, event, runnable.getTuple())), initialDelay, delay, unit));
+    }
+
+
+    /**
+     * ask owner through its ReplyEvent, timeout tracked by the monitor timer
+     * <p>
+     * The future always completes: with the reply, the reply failure, a timeout, or a RejectedExecutionException
+     * when the executor or a bounded mailbox refuses the ask.
+     *
+     * @param owner   Event owner
+     * @param event   Event name of a ReplyEvent
+     * @param payload request payload
+     * @param timeout reply timeout, 0 waits forever
+     * @param unit    timeout unit
+     * @param <P>     payload type
+     * @param <R>     reply type
+     * @return CompletableFuture<R>
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <P, R> CompletableFuture<R> ask(_Owner owner, _Event event, P payload, long timeout, TimeUnit unit) {
+        CompletableFuture<R> future = new CompletableFuture<>();
+        Event e = LongEventRegistry.lookup(events, owner, event);
+        if (!(e instanceof ReplyEvent)) {
+            future.completeExceptionally(new IllegalArgumentException(String.format("%s of %s is not a ReplyEvent", event, owner)));
+            return future;
+        }
+        Runnable runnable = timed(owner, event, new Ask<>((ReplyEvent<P, R>) e, payload, future));
+        try {
+            if (timeout > 0) {
+                ScheduledFuture<?> expire = timer.schedule(() -> future.completeExceptionally(
+                        new TimeoutException(String.format("%s of %s no reply in %d %s", event, owner, timeout, unit))), timeout, unit);
+                // completing the future any way, refusal included, cancels its timeout
+                future.whenComplete((r, t) -> expire.cancel(false));
+            }
+        } catch (RejectedExecutionException exception) {
+            refused(runnable);
+            future.completeExceptionally(exception);
+            return future;
+        }
+        if (mailbox) {
+            try {
+                mailbox(owner).execute(runnable);
+            } catch (RejectedExecutionException exception) {
+                // still queued, the next drain of the owner skips it as its future is done
+                future.completeExceptionally(exception);
             }
-        },initialDelay,delay,unit));
+            return future;
+        }
+        try {
+            execute(() -> invoke(owner, runnable));
+        } catch (RejectedExecutionException exception) {
+            refused(runnable);
+            future.completeExceptionally(exception);
+        }
+        return future;
+    }
+
+
+    /**
+     * Ask callback, completes its future when it runs, fails or is refused
+     *
+     * @param <P> payload type
+     * @param <R> reply type
+     */
+    private static final class Ask<P, R> implements Runnable {
+
+        /**
+         * reply event
+         */
+        private final ReplyEvent<P, R> reply;
+
+        /**
+         * request payload
+         */
+        private final P payload;
+
+        /**
+         * reply future
+         */
+        private final CompletableFuture<R> future;
+
+
+        /**
+         * Construct Method
+         *
+         * @param reply   reply event
+         * @param payload request payload
+         * @param future  reply future
+         */
+        Ask(ReplyEvent<P, R> reply, P payload, CompletableFuture<R> future) {
+            this.reply = reply;
+            this.payload = payload;
+            this.future = future;
+        }
+
+
+        /**
+         * answer unless already timed out or refused, errors still reach the worker
+         */
+        @Override
+        public void run() {
+            if (future.isDone()) {
+                return;
+            }
+            try {
+                future.complete(reply.reply(payload));
+            } catch (Throwable throwable) {
+                future.completeExceptionally(throwable);
+                if (throwable instanceof Error) {
+                    throw (Error) throwable;
+                }
+            }
+        }
+
+
+        /**
+         * ask never runs
+         *
+         * @param cause refusal
+         */
+        void refuse(Throwable cause) {
+            future.completeExceptionally(cause);
+        }
     }
 }
@@ -0,0 +1,28 @@
+package com.meteorcat.mix.core.event;
+
+/**
+ * Bounded mailbox overflow policy, mailbox mode only
+ * @author MeteorCat
+ */
+public enum EventOverflow {
+
+    /**
+     * Drop the offered callback
+     */
+    DROP_NEWEST,
+
+    /**
+     * Drop the oldest pending callback, then enqueue
+     */
+    DROP_OLDEST,
+
+    /**
+     * Refuse the offered callback and notify rejected handler
+     */
+    REJECT,
+
+    /**
+     * Block the caller until space or timeout, then reject
+     */
+    BLOCK
+}
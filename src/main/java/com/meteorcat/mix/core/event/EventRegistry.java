@@ -0,0 +1,148 @@
+package com.meteorcat.mix.core.event;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+
+/**
+ * Default event registry
+ * <p>
+ * Owner map of event maps, owner entries are only mutated inside ConcurrentHashMap.compute,
+ * so put never lands in an inner map that a concurrent remove(owner) already detached.
+ *
+ * @author MeteorCat
+ */
+public class EventRegistry<_Owner, _Event> implements IEventRegistry<_Owner, _Event> {
+
+
+    /**
+     * Events
+     */
+    private final Map<_Owner, Map<_Event, Event>> events = new ConcurrentHashMap<>();
+
+
+    /**
+     * owner exists?
+     *
+     * @param owner Event owner
+     * @return boolean
+     */
+    @Override
+    public boolean containsKey(_Owner owner) {
+        return events.containsKey(owner);
+    }
+
+
+    /**
+     * event exists?
+     *
+     * @param owner Event owner
+     * @param event Event name
+     * @return boolean
+     */
+    @Override
+    public boolean containsKey(_Owner owner, _Event event) {
+        Map<_Event, Event> tuples = events.get(owner);
+        return tuples != null && tuples.containsKey(event);
+    }
+
+
+    /**
+     * get owner events snapshot
+     *
+     * @param owner Event owner
+     * @return Map<_Event, Event>|null
+     */
+    @Override
+    public Map<_Event, Event> get(_Owner owner) {
+        Map<_Event, Event> tuples = events.get(owner);
+        return tuples == null ? null : Map.copyOf(tuples);
+    }
+
+
+    /**
+     * get event
+     *
+     * @param owner Event owner
+     * @param event Event name
+     * @return Event|null
+     */
+    @Override
+    public Event get(_Owner owner, _Event event) {
+        Map<_Event, Event> tuples = events.get(owner);
+        return tuples == null ? null : tuples.get(event);
+    }
+
+
+    /**
+     * visit events of one owner, owner resolved once
+     *
+     * @param owner  Event owner
+     * @param events Event names
+     * @param action receives every registered name and its Event in names order
+     */
+    @Override
+    public void forEach(_Owner owner, Collection<_Event> events, BiConsumer<_Event, Event> action) {
+        Map<_Event, Event> tuples = this.events.get(owner);
+        if (tuples == null) {
+            return;
+        }
+        for (_Event event : events) {
+            Event e = tuples.get(event);
+            if (e != null) {
+                action.accept(event, e);
+            }
+        }
+    }
+
+
+    /**
+     * add event
+     *
+     * @param owner    Event owner
+     * @param event    Event name
+     * @param e        Event
+     * @param ownerCap Event capacity hint
+     */
+    @Override
+    public void put(_Owner owner, _Event event, Event e, int ownerCap) {
+        events.compute(owner, (key, tuples) -> {
+            if (tuples == null) {
+                tuples = new ConcurrentHashMap<>(ownerCap);
+            }
+            tuples.put(event, e);
+            return tuples;
+        });
+    }
+
+
+    /**
+     * remove event
+     *
+     * @param owner Event owner
+     * @param event Event name
+     * @return removed Event|null
+     */
+    @Override
+    public Event remove(_Owner owner, _Event event) {
+        Event[] removed = new Event[1];
+        events.computeIfPresent(owner, (key, tuples) -> {
+            removed[0] = tuples.remove(event);
+            return tuples;
+        });
+        return removed[0];
+    }
+
+
+    /**
+     * remove owner with all events
+     *
+     * @param owner Event owner
+     * @return removed Map<_Event, Event>|null
+     */
+    @Override
+    public Map<_Event, Event> remove(_Owner owner) {
+        return events.remove(owner);
+    }
+}
@@ -0,0 +1,678 @@
+package com.meteorcat.mix.core.event;
+
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hashed timing wheel timer engine
+ * <p>
+ * Insert and cancel are O(1) lock-free queue offers, a single ticker thread moves them into
+ * wheel buckets and hands expired callbacks to the executor. Precision is one tick.
+ *
+ * @author MeteorCat
+ */
+public class EventTimingWheel implements IEventTimer {
+
+    /**
+     * Default tick duration (milliseconds)
+     */
+    public static final long DEFAULT_TICK_MILLIS = 10L;
+
+    /**
+     * Default bucket count
+     */
+    public static final int DEFAULT_WHEEL_SIZE = 512;
+
+    /**
+     * Max pending timeouts moved into buckets per tick
+     */
+    private static final int TRANSFER_LIMIT = 100000;
+
+
+    /**
+     * Expired callback executor
+     */
+    private final Executor executor;
+
+    /**
+     * Tick duration (nanoseconds)
+     */
+    private final long tickNanos;
+
+    /**
+     * Wheel buckets
+     */
+    private final Bucket[] wheel;
+
+    /**
+     * Bucket index mask
+     */
+    private final int mask;
+
+    /**
+     * Scheduled timeouts waiting for ticker
+     */
+    private final Queue<Timeout> pending = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Cancelled timeouts waiting for ticker
+     */
+    private final Queue<Timeout> cancelled = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Ticker thread
+     */
+    private final Thread worker;
+
+    /**
+     * Wheel start time (nanoseconds)
+     */
+    private final long startTime;
+
+    /**
+     * Wheel stopped?
+     */
+    private volatile boolean shutdown = false;
+
+
+    /**
+     * Construct Method
+     *
+     * @param executor expired callback executor
+     */
+    public EventTimingWheel(Executor executor) {
+        this(executor, DEFAULT_TICK_MILLIS, TimeUnit.MILLISECONDS, DEFAULT_WHEEL_SIZE);
+    }
+
+
+    /**
+     * Construct Method
+     *
+     * @param executor  expired callback executor
+     * @param tick      tick duration
+     * @param unit      tick timeunit
+     * @param wheelSize bucket count, rounded up to power of two
+     */
+    public EventTimingWheel(Executor executor, long tick, TimeUnit unit, int wheelSize) {
+        this(executor, tick, unit, wheelSize, runnable -> {
+            Thread thread = new Thread(runnable, "event-timing-wheel");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+
+    /**
+     * Construct Method
+     *
+     * @param executor      expired callback executor
+     * @param tick          tick duration
+     * @param unit          tick timeunit
+     * @param wheelSize     bucket count, rounded up to power of two
+     * @param threadFactory ticker ThreadFactory
+     */
+    public EventTimingWheel(Executor executor, long tick, TimeUnit unit, int wheelSize, ThreadFactory threadFactory) {
+        if (tick <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("tick and wheelSize must be positive");
+        }
+        int size = 1;
+        while (size < wheelSize) {
+            size <<= 1;
+        }
+        this.executor = executor;
+        this.tickNanos = unit.toNanos(tick);
+        this.wheel = new Bucket[size];
+        for (int i = 0; i < size; i++) {
+            wheel[i] = new Bucket();
+        }
+        this.mask = size - 1;
+        this.startTime = System.nanoTime();
+        this.worker = threadFactory.newThread(this::work);
+        this.worker.start();
+    }
+
+
+    /**
+     * Timer schedule
+     *
+     * @param command callback
+     * @param delay   delay
+     * @param unit    timeunit
+     * @return ScheduledFuture<?>
+     */
+    @Override
+    public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+        return submit(new Timeout(this, command, deadline(delay, unit), 0L));
+    }
+
+
+    /**
+     * Timer schedule fixed rate
+     *
+     * @param command      callback
+     * @param initialDelay initialization delay
+     * @param period       each delay
+     * @param unit         timeunit
+     * @return ScheduledFuture<?>
+     */
+    @Override
+    public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period, TimeUnit unit) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("period must be positive");
+        }
+        return submit(new Timeout(this, command, deadline(initialDelay, unit), unit.toNanos(period)));
+    }
+
+
+    /**
+     * Timer schedule with fixed delay
+     *
+     * @param command      callback
+     * @param initialDelay initialization delay
+     * @param delay        each delay
+     * @param unit         timeunit
+     * @return ScheduledFuture<?>
+     */
+    @Override
+    public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay, TimeUnit unit) {
+        if (delay <= 0) {
+            throw new IllegalArgumentException("delay must be positive");
+        }
+        return submit(new Timeout(this, command, deadline(initialDelay, unit), -unit.toNanos(delay)));
+    }
+
+
+    /**
+     * Stop ticker, timeouts not yet expired never run and are cancelled
+     */
+    public void shutdown() {
+        shutdown = true;
+        LockSupport.unpark(worker);
+    }
+
+
+    /**
+     * wheel stopped?
+     *
+     * @return boolean
+     */
+    public boolean isShutdown() {
+        return shutdown;
+    }
+
+
+    /**
+     * Relative deadline from wheel start
+     *
+     * @param delay delay
+     * @param unit  timeunit
+     * @return long
+     */
+    private long deadline(long delay, TimeUnit unit) {
+        return System.nanoTime() - startTime + Math.max(0L, unit.toNanos(delay));
+    }
+
+
+    /**
+     * Queue timeout for ticker
+     *
+     * @param timeout Timeout
+     * @return Timeout
+     */
+    private Timeout submit(Timeout timeout) {
+        if (shutdown) {
+            throw new RejectedExecutionException("EventTimingWheel has been shutdown");
+        }
+        pending.offer(timeout);
+        if (shutdown) {
+            // raced the ticker's final sweep
+            timeout.cancel(false);
+        }
+        return timeout;
+    }
+
+
+    /**
+     * Ticker loop
+     */
+    private void work() {
+        long tick = 0L;
+        while (!shutdown) {
+            long deadline = tickNanos * (tick + 1);
+            long now;
+            while ((now = System.nanoTime() - startTime) < deadline && !shutdown) {
+                LockSupport.parkNanos(this, deadline - now);
+            }
+            if (shutdown) {
+                break;
+            }
+
+            Timeout timeout;
+            while ((timeout = cancelled.poll()) != null) {
+                if (timeout.bucket != null) {
+                    timeout.bucket.remove(timeout);
+                }
+            }
+
+            for (int i = 0; i < TRANSFER_LIMIT && (timeout = pending.poll()) != null; i++) {
+                if (timeout.state != Timeout.WAITING) {
+                    continue;
+                }
+                long calculated = timeout.deadline / tickNanos;
+                timeout.rounds = (calculated - tick) / wheel.length;
+                wheel[(int) (Math.max(calculated, tick) & mask)].add(timeout);
+            }
+
+            wheel[(int) (tick & mask)].expire();
+            tick++;
+        }
+
+        // stopped: cancel what never expired, so no get() waits forever
+        Timeout timeout;
+        for (Bucket bucket : wheel) {
+            bucket.cancel();
+        }
+        while ((timeout = pending.poll()) != null) {
+            timeout.cancel(false);
+        }
+        cancelled.clear();
+    }
+
+
+    /**
+     * Hand expired timeout to executor
+     *
+     * @param timeout Timeout
+     */
+    private void fire(Timeout timeout) {
+        try {
+            executor.execute(timeout);
+        } catch (RejectedExecutionException exception) {
+            timeout.complete(Timeout.DONE, exception);
+        }
+    }
+
+
+    /**
+     * Re-arm periodic timeout
+     *
+     * @param timeout Timeout
+     */
+    private void rearm(Timeout timeout) {
+        if (shutdown) {
+            timeout.cancel(false);
+            return;
+        }
+        pending.offer(timeout);
+        if (shutdown) {
+            timeout.cancel(false);
+        }
+    }
+
+
+    /**
+     * Wheel bucket, doubly linked list only touched by ticker thread
+     */
+    private static final class Bucket {
+
+        /**
+         * list head
+         */
+        private Timeout head;
+
+        /**
+         * list tail
+         */
+        private Timeout tail;
+
+
+        /**
+         * append timeout
+         *
+         * @param timeout Timeout
+         */
+        void add(Timeout timeout) {
+            timeout.bucket = this;
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+
+        /**
+         * unlink timeout
+         *
+         * @param timeout Timeout
+         * @return next timeout
+         */
+        Timeout remove(Timeout timeout) {
+            Timeout next = timeout.next;
+            if (timeout.prev != null) {
+                timeout.prev.next = next;
+            }
+            if (next != null) {
+                next.prev = timeout.prev;
+            }
+            if (timeout == head) {
+                head = next;
+            }
+            if (timeout == tail) {
+                tail = timeout.prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+            return next;
+        }
+
+
+        /**
+         * Cancel every timeout left in bucket
+         */
+        void cancel() {
+            Timeout timeout = head;
+            while (timeout != null) {
+                Timeout next = remove(timeout);
+                timeout.cancel(false);
+                timeout = next;
+            }
+        }
+
+
+        /**
+         * Expire due timeouts, count down the others
+         */
+        void expire() {
+            Timeout timeout = head;
+            while (timeout != null) {
+                if (timeout.state != Timeout.WAITING) {
+                    timeout = remove(timeout);
+                } else if (timeout.rounds <= 0) {
+                    Timeout next = remove(timeout);
+                    timeout.wheel.fire(timeout);
+                    timeout = next;
+                } else {
+                    timeout.rounds--;
+                    timeout = timeout.next;
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Wheel timeout future
+     */
+    private static final class Timeout implements ScheduledFuture<Object>, Runnable {
+
+        /**
+         * waiting for expiration
+         */
+        static final int WAITING = 0;
+
+        /**
+         * running callback (one-shot)
+         */
+        static final int RUNNING = 1;
+
+        /**
+         * completed
+         */
+        static final int DONE = 2;
+
+        /**
+         * cancelled
+         */
+        static final int CANCELLED = 3;
+
+        /**
+         * state updater
+         */
+        private static final AtomicIntegerFieldUpdater<Timeout> STATE =
+                AtomicIntegerFieldUpdater.newUpdater(Timeout.class, "state");
+
+        /**
+         * owner wheel
+         */
+        final EventTimingWheel wheel;
+
+        /**
+         * callback
+         */
+        final Runnable command;
+
+        /**
+         * 0 one-shot, positive fixed rate, negative fixed delay (nanoseconds)
+         */
+        final long period;
+
+        /**
+         * relative deadline (nanoseconds)
+         */
+        volatile long deadline;
+
+        /**
+         * state
+         */
+        volatile int state = WAITING;
+
+        /**
+         * failure cause
+         */
+        Throwable cause;
+
+        /**
+         * remaining wheel rounds, ticker only
+         */
+        long rounds;
+
+        /**
+         * current bucket, ticker only
+         */
+        Bucket bucket;
+
+        /**
+         * previous in bucket, ticker only
+         */
+        Timeout prev;
+
+        /**
+         * next in bucket, ticker only
+         */
+        Timeout next;
+
+
+        /**
+         * Construct Method
+         *
+         * @param wheel    owner wheel
+         * @param command  callback
+         * @param deadline relative deadline
+         * @param period   period
+         */
+        Timeout(EventTimingWheel wheel, Runnable command, long deadline, long period) {
+            this.wheel = wheel;
+            this.command = command;
+            this.deadline = deadline;
+            this.period = period;
+        }
+
+
+        /**
+         * Run callback on executor
+         */
+        @Override
+        public void run() {
+            if (period == 0L) {
+                if (!STATE.compareAndSet(this, WAITING, RUNNING)) {
+                    return;
+                }
+                try {
+                    command.run();
+                    complete(DONE, null);
+                } catch (Throwable throwable) {
+                    complete(DONE, throwable);
+                }
+                return;
+            }
+
+            if (state != WAITING) {
+                return;
+            }
+            try {
+                command.run();
+            } catch (Throwable throwable) {
+                complete(DONE, throwable);
+                return;
+            }
+            if (state == WAITING) {
+                deadline = period > 0 ? deadline + period : System.nanoTime() - wheel.startTime - period;
+                wheel.rearm(this);
+            }
+        }
+
+
+        /**
+         * Finish timeout and wake waiters
+         *
+         * @param to        final state
+         * @param throwable failure cause
+         */
+        synchronized void complete(int to, Throwable throwable) {
+            int from = state;
+            if (from >= DONE) {
+                return;
+            }
+            if (STATE.compareAndSet(this, from, to)) {
+                cause = throwable;
+                notifyAll();
+            }
+        }
+
+
+        /**
+         * remaining delay
+         * @param unit timeunit
+         * @return long
+         */
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(deadline - (System.nanoTime() - wheel.startTime), TimeUnit.NANOSECONDS);
+        }
+
+
+        /**
+         * compare remaining delay
+         * @param other Delayed
+         * @return int
+         */
+        @Override
+        public int compareTo(Delayed other) {
+            if (other == this) {
+                return 0;
+            }
+            return Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+        }
+
+
+        /**
+         * cancel timeout, callback already running is not interrupted
+         * @param mayInterruptIfRunning ignored
+         * @return boolean
+         */
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            if (!STATE.compareAndSet(this, WAITING, CANCELLED)) {
+                return false;
+            }
+            synchronized (this) {
+                notifyAll();
+            }
+            wheel.cancelled.offer(this);
+            return true;
+        }
+
+
+        /**
+         * timeout cancelled?
+         * @return boolean
+         */
+        @Override
+        public boolean isCancelled() {
+            return state == CANCELLED;
+        }
+
+
+        /**
+         * timeout completed or cancelled?
+         * @return boolean
+         */
+        @Override
+        public boolean isDone() {
+            return state >= DONE;
+        }
+
+
+        /**
+         * wait for completion
+         * @return Object
+         */
+        @Override
+        public Object get() throws InterruptedException, ExecutionException {
+            synchronized (this) {
+                while (state < DONE) {
+                    wait();
+                }
+            }
+            return report();
+        }
+
+
+        /**
+         * wait for completion
+         * @param timeout wait time
+         * @param unit timeunit
+         * @return Object
+         */
+        @Override
+        public Object get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+            long end = System.nanoTime() + unit.toNanos(timeout);
+            synchronized (this) {
+                long remaining;
+                while (state < DONE) {
+                    remaining = end - System.nanoTime();
+                    if (remaining <= 0L) {
+                        throw new TimeoutException();
+                    }
+                    TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                }
+            }
+            return report();
+        }
+
+
+        /**
+         * Completion result
+         *
+         * @return Object
+         * @throws ExecutionException callback failed
+         */
+        private Object report() throws ExecutionException {
+            if (state == CANCELLED) {
+                throw new CancellationException();
+            }
+            synchronized (this) {
+                if (cause != null) {
+                    throw new ExecutionException(cause);
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.meteorcat.mix.core.event;
 
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -17,6 +19,30 @@ public interface IEventMonitor<_Owner,_Event> {
     void execute(_Owner owner,_Event event);
 
 
+    /**
+     * execute event for many owners, executes them one by one unless overridden
+     * @param owners Event owners
+     * @param event Event name
+     */
+    default void executeAll(Collection<_Owner> owners,_Event event){
+        for (_Owner owner : owners) {
+            execute(owner, event);
+        }
+    }
+
+
+    /**
+     * execute events of one owner in order, executes them one by one unless overridden
+     * @param owner Event owner
+     * @param events Event names
+     */
+    default void executeAll(_Owner owner,Collection<_Event> events){
+        for (_Event event : events) {
+            execute(owner, event);
+        }
+    }
+
+
     /**
      * Monitor event schedule
      * @param owner Event owner
@@ -48,5 +74,27 @@ public interface IEventMonitor<_Owner,_Event> {
     void scheduleWithFixedDelay(_Owner owner,_Event event, long initialDelay, long delay, TimeUnit unit);
 
 
+    /**
+     * ask owner through its ReplyEvent, the reply runs serialized with the owner's other events
+     * <p>
+     * The future fails with TimeoutException when no reply came in time, a late reply is skipped.
+     * Don't block an owner callback on the future, chain with thenAccept instead.
+     * Monitors without ask support fail the future with UnsupportedOperationException.
+     * @param owner Event owner
+     * @param event Event name of a ReplyEvent
+     * @param payload request payload
+     * @param timeout reply timeout, 0 waits forever
+     * @param unit timeout unit
+     * @return CompletableFuture<R>
+     * @param <P> payload type
+     * @param <R> reply type
+     */
+    default <P, R> CompletableFuture<R> ask(_Owner owner, _Event event, P payload, long timeout, TimeUnit unit){
+        CompletableFuture<R> future = new CompletableFuture<>();
+        future.completeExceptionally(new UnsupportedOperationException(String.format("%s does not support ask", getClass().getName())));
+        return future;
+    }
+
+
 
 }
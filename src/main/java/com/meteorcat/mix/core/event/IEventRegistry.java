@@ -0,0 +1,90 @@
+package com.meteorcat.mix.core.event;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Event registry interface, must be safe under concurrent put and remove
+ * @author MeteorCat
+ */
+public interface IEventRegistry<_Owner,_Event> {
+
+
+    /**
+     * owner exists?
+     * @param owner Event owner
+     * @return boolean
+     */
+    boolean containsKey(_Owner owner);
+
+
+    /**
+     * event exists?
+     * @param owner Event owner
+     * @param event Event name
+     * @return boolean
+     */
+    boolean containsKey(_Owner owner,_Event event);
+
+
+    /**
+     * get owner events snapshot, unmodifiable and not updated by later put or remove
+     * @param owner Event owner
+     * @return Map<_Event, Event>|null
+     */
+    Map<_Event, Event> get(_Owner owner);
+
+
+    /**
+     * get event
+     * @param owner Event owner
+     * @param event Event name
+     * @return Event|null
+     */
+    Event get(_Owner owner,_Event event);
+
+
+    /**
+     * visit events of one owner, registries resolving the owner once override it
+     * @param owner Event owner
+     * @param events Event names
+     * @param action receives every registered name and its Event in names order
+     */
+    default void forEach(_Owner owner, Collection<_Event> events, BiConsumer<_Event, Event> action) {
+        for (_Event event : events) {
+            Event e = get(owner, event);
+            if (e != null) {
+                action.accept(event, e);
+            }
+        }
+    }
+
+
+    /**
+     * add event
+     * @param owner Event owner
+     * @param event Event name
+     * @param e Event
+     * @param ownerCap Event capacity hint
+     */
+    void put(_Owner owner,_Event event,Event e,int ownerCap);
+
+
+    /**
+     * remove event
+     * @param owner Event owner
+     * @param event Event name
+     * @return removed Event|null
+     */
+    Event remove(_Owner owner,_Event event);
+
+
+    /**
+     * remove owner with all events
+     * @param owner Event owner
+     * @return removed Map<_Event, Event>|null
+     */
+    Map<_Event, Event> remove(_Owner owner);
+
+}
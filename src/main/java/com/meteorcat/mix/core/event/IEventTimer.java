@@ -0,0 +1,44 @@
+package com.meteorcat.mix.core.event;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Event timer engine interface
+ * @author MeteorCat
+ */
+public interface IEventTimer {
+
+
+    /**
+     * Timer schedule
+     * @param command callback
+     * @param delay delay
+     * @param unit timeunit
+     * @return ScheduledFuture<?>
+     */
+    ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit);
+
+
+    /**
+     * Timer schedule fixed rate
+     * @param command callback
+     * @param initialDelay initialization delay
+     * @param period each delay
+     * @param unit timeunit
+     * @return ScheduledFuture<?>
+     */
+    ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period, TimeUnit unit);
+
+
+    /**
+     * Timer schedule with fixed delay
+     * @param command callback
+     * @param initialDelay initialization delay
+     * @param delay each delay
+     * @param unit timeunit
+     * @return ScheduledFuture<?>
+     */
+    ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay, TimeUnit unit);
+
+}
@@ -0,0 +1,692 @@
+package com.meteorcat.mix.core.event;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Primitive event registry for long owner ids and int event ids
+ * <p>
+ * Owners live in striped open-addressing long tables, each owner keeps its events in immutable
+ * int/Event arrays replaced on write. Reads are optimistic and lock-free unless they race a write,
+ * writes lock only one stripe. A registered event costs an int and a reference instead of a boxed key
+ * plus hash node.
+ *
+ * @author MeteorCat
+ */
+public class LongEventRegistry implements IEventRegistry<Long, Integer> {
+
+    /**
+     * Default stripe count
+     */
+    public static final int DEFAULT_CONCURRENCY = 16;
+
+    /**
+     * Initial slots per stripe
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Removed owner slot marker
+     */
+    private static final Owner TOMBSTONE = new Owner(new int[0], new Event[0]);
+
+
+    /**
+     * Stripes
+     */
+    private final Segment[] segments;
+
+    /**
+     * Stripe index mask
+     */
+    private final int mask;
+
+
+    /**
+     * Construct Method
+     */
+    public LongEventRegistry() {
+        this(DEFAULT_CONCURRENCY);
+    }
+
+
+    /**
+     * Construct Method
+     *
+     * @param concurrency stripe count, rounded up to power of two
+     */
+    public LongEventRegistry(int concurrency) {
+        int size = 1;
+        while (size < concurrency) {
+            size <<= 1;
+        }
+        this.segments = new Segment[size];
+        for (int i = 0; i < size; i++) {
+            segments[i] = new Segment();
+        }
+        this.mask = size - 1;
+    }
+
+
+    /**
+     * owner exists?
+     *
+     * @param owner Event owner
+     * @return boolean
+     */
+    public boolean containsKey(long owner) {
+        long hash = hash(owner);
+        return segment(hash).find(owner, hash) != null;
+    }
+
+
+    /**
+     * event exists?
+     *
+     * @param owner Event owner
+     * @param event Event name
+     * @return boolean
+     */
+    public boolean containsKey(long owner, int event) {
+        return get(owner, event) != null;
+    }
+
+
+    /**
+     * get owner events snapshot
+     *
+     * @param owner Event owner
+     * @return Map<Integer, Event>|null
+     */
+    public Map<Integer, Event> get(long owner) {
+        long hash = hash(owner);
+        Owner found = segment(hash).find(owner, hash);
+        return found == null ? null : found.toMap();
+    }
+
+
+    /**
+     * get event
+     *
+     * @param owner Event owner
+     * @param event Event name
+     * @return Event|null
+     */
+    public Event get(long owner, int event) {
+        long hash = hash(owner);
+        Owner found = segment(hash).find(owner, hash);
+        return found == null ? null : found.get(event);
+    }
+
+
+    /**
+     * get event of any registry, a LongEventRegistry with Long/Integer keys goes straight to {@link #get(long, int)}
+     *
+     * @param registry event registry
+     * @param owner    Event owner
+     * @param event    Event name
+     * @param <_Owner> owner type
+     * @param <_Event> event type
+     * @return Event|null
+     */
+    static <_Owner, _Event> Event lookup(IEventRegistry<_Owner, _Event> registry, _Owner owner, _Event event) {
+        if (registry instanceof LongEventRegistry && owner instanceof Long && event instanceof Integer) {
+            return ((LongEventRegistry) registry).get((long) (Long) owner, (int) (Integer) event);
+        }
+        return registry.get(owner, event);
+    }
+
+
+    /**
+     * visit events of one owner, owner resolved once
+     *
+     * @param owner  Event owner
+     * @param events Event names
+     * @param action receives every registered name and its Event in names order
+     */
+    @Override
+    public void forEach(Long owner, Collection<Integer> events, BiConsumer<Integer, Event> action) {
+        long id = owner;
+        long hash = hash(id);
+        Owner found = segment(hash).find(id, hash);
+        if (found == null) {
+            return;
+        }
+        for (Integer event : events) {
+            Event e = found.get(event);
+            if (e != null) {
+                action.accept(event, e);
+            }
+        }
+    }
+
+
+    /**
+     * add event
+     *
+     * @param owner Event owner
+     * @param event Event name
+     * @param e     Event
+     */
+    public void put(long owner, int event, Event e) {
+        long hash = hash(owner);
+        segment(hash).put(owner, hash, event, e);
+    }
+
+
+    /**
+     * remove event
+     *
+     * @param owner Event owner
+     * @param event Event name
+     * @return removed Event|null
+     */
+    public Event remove(long owner, int event) {
+        long hash = hash(owner);
+        return segment(hash).remove(owner, hash, event);
+    }
+
+
+    /**
+     * remove owner with all events
+     *
+     * @param owner Event owner
+     * @return removed Map<Integer, Event>|null
+     */
+    public Map<Integer, Event> remove(long owner) {
+        long hash = hash(owner);
+        Owner removed = segment(hash).remove(owner, hash);
+        return removed == null ? null : removed.toMap();
+    }
+
+
+    /**
+     * registered owner count
+     *
+     * @return int
+     */
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            long stamp = segment.lock.readLock();
+            try {
+                size += segment.size;
+            } finally {
+                segment.lock.unlockRead(stamp);
+            }
+        }
+        return size;
+    }
+
+
+    /**
+     * owner exists?
+     *
+     * @param owner Event owner
+     * @return boolean
+     */
+    @Override
+    public boolean containsKey(Long owner) {
+        return containsKey(owner.longValue());
+    }
+
+
+    /**
+     * event exists?
+     *
+     * @param owner Event owner
+     * @param event Event name
+     * @return boolean
+     */
+    @Override
+    public boolean containsKey(Long owner, Integer event) {
+        return containsKey(owner.longValue(), event.intValue());
+    }
+
+
+    /**
+     * get owner events snapshot
+     *
+     * @param owner Event owner
+     * @return Map<Integer, Event>|null
+     */
+    @Override
+    public Map<Integer, Event> get(Long owner) {
+        return get(owner.longValue());
+    }
+
+
+    /**
+     * get event
+     *
+     * @param owner Event owner
+     * @param event Event name
+     * @return Event|null
+     */
+    @Override
+    public Event get(Long owner, Integer event) {
+        return get(owner.longValue(), event.intValue());
+    }
+
+
+    /**
+     * add event
+     *
+     * @param owner    Event owner
+     * @param event    Event name
+     * @param e        Event
+     * @param ownerCap ignored, owner arrays grow exactly
+     */
+    @Override
+    public void put(Long owner, Integer event, Event e, int ownerCap) {
+        put(owner.longValue(), event.intValue(), e);
+    }
+
+
+    /**
+     * remove event
+     *
+     * @param owner Event owner
+     * @param event Event name
+     * @return removed Event|null
+     */
+    @Override
+    public Event remove(Long owner, Integer event) {
+        return remove(owner.longValue(), event.intValue());
+    }
+
+
+    /**
+     * remove owner with all events
+     *
+     * @param owner Event owner
+     * @return removed Map<Integer, Event>|null
+     */
+    @Override
+    public Map<Integer, Event> remove(Long owner) {
+        return remove(owner.longValue());
+    }
+
+
+    /**
+     * owner stripe, selected by high hash bits
+     *
+     * @param hash owner hash
+     * @return Segment
+     */
+    private Segment segment(long hash) {
+        return segments[(int) (hash >>> 32) & mask];
+    }
+
+
+    /**
+     * murmur3 64-bit finalizer
+     *
+     * @param owner Event owner
+     * @return long
+     */
+    private static long hash(long owner) {
+        long h = owner;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+
+    /**
+     * Owner stripe, the lock only guards writers
+     */
+    private static final class Segment {
+
+        /**
+         * writer lock, readers validate optimistic stamps against it
+         */
+        private final StampedLock lock = new StampedLock();
+
+        /**
+         * open-addressing table, replaced on resize
+         */
+        private volatile Table table = new Table(INITIAL_CAPACITY);
+
+        /**
+         * live owners
+         */
+        private int size;
+
+        /**
+         * live owners and tombstones
+         */
+        private int used;
+
+
+        /**
+         * find owner, optimistic read retried under read lock
+         *
+         * @param owner Event owner
+         * @param hash  owner hash
+         * @return Owner|null
+         */
+        Owner find(long owner, long hash) {
+            long stamp = lock.tryOptimisticRead();
+            Owner found = table.find(owner, hash);
+            if (lock.validate(stamp)) {
+                return found;
+            }
+            stamp = lock.readLock();
+            try {
+                return table.find(owner, hash);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+
+        /**
+         * add event
+         *
+         * @param owner Event owner
+         * @param hash  owner hash
+         * @param event Event name
+         * @param e     Event
+         */
+        void put(long owner, long hash, int event, Event e) {
+            long stamp = lock.writeLock();
+            try {
+                Table t = table;
+                int slot = t.slot(owner, hash);
+                Owner found = t.values[slot];
+                if (found != null && found != TOMBSTONE) {
+                    t.values[slot] = found.with(event, e);
+                    return;
+                }
+
+                t.keys[slot] = owner;
+                t.values[slot] = new Owner(new int[]{event}, new Event[]{e});
+                size++;
+                if (found == null) {
+                    used++;
+                }
+                if (used * 3 >= t.keys.length * 2) {
+                    table = t.rehash(size);
+                    used = size;
+                }
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+
+        /**
+         * remove event
+         *
+         * @param owner Event owner
+         * @param hash  owner hash
+         * @param event Event name
+         * @return removed Event|null
+         */
+        Event remove(long owner, long hash, int event) {
+            long stamp = lock.writeLock();
+            try {
+                Table t = table;
+                int slot = t.slot(owner, hash);
+                Owner found = t.values[slot];
+                if (found == null || found == TOMBSTONE) {
+                    return null;
+                }
+                Event removed = found.get(event);
+                if (removed != null) {
+                    t.values[slot] = found.without(event);
+                }
+                return removed;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+
+        /**
+         * remove owner
+         *
+         * @param owner Event owner
+         * @param hash  owner hash
+         * @return removed Owner|null
+         */
+        Owner remove(long owner, long hash) {
+            long stamp = lock.writeLock();
+            try {
+                Table t = table;
+                int slot = t.slot(owner, hash);
+                Owner found = t.values[slot];
+                if (found == null || found == TOMBSTONE) {
+                    return null;
+                }
+                t.values[slot] = TOMBSTONE;
+                size--;
+                return found;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+    }
+
+
+    /**
+     * Linear probing table
+     */
+    private static final class Table {
+
+        /**
+         * owner ids
+         */
+        final long[] keys;
+
+        /**
+         * owner events, null empty slot
+         */
+        final Owner[] values;
+
+
+        /**
+         * Construct Method
+         *
+         * @param capacity slots, power of two
+         */
+        Table(int capacity) {
+            this.keys = new long[capacity];
+            this.values = new Owner[capacity];
+        }
+
+
+        /**
+         * find live owner
+         *
+         * @param owner Event owner
+         * @param hash  owner hash
+         * @return Owner|null
+         */
+        Owner find(long owner, long hash) {
+            int mask = keys.length - 1;
+            int index = (int) hash & mask;
+            for (int probe = 0; probe <= mask; probe++, index = (index + 1) & mask) {
+                Owner value = values[index];
+                if (value == null) {
+                    return null;
+                }
+                if (value != TOMBSTONE && keys[index] == owner) {
+                    return value;
+                }
+            }
+            return null;
+        }
+
+
+        /**
+         * slot of live owner, else first reusable slot, writers only
+         *
+         * @param owner Event owner
+         * @param hash  owner hash
+         * @return int
+         */
+        int slot(long owner, long hash) {
+            int mask = keys.length - 1;
+            int index = (int) hash & mask;
+            int reusable = -1;
+            for (int probe = 0; probe <= mask; probe++, index = (index + 1) & mask) {
+                Owner value = values[index];
+                if (value == null) {
+                    return reusable >= 0 ? reusable : index;
+                }
+                if (value == TOMBSTONE) {
+                    if (reusable < 0) {
+                        reusable = index;
+                    }
+                } else if (keys[index] == owner) {
+                    return index;
+                }
+            }
+            return reusable;
+        }
+
+
+        /**
+         * copy live owners into table sized for them, dropping tombstones
+         *
+         * @param size live owners
+         * @return Table
+         */
+        Table rehash(int size) {
+            int capacity = INITIAL_CAPACITY;
+            while (capacity * 2 <= size * 4) {
+                capacity <<= 1;
+            }
+            Table next = new Table(capacity);
+            int mask = capacity - 1;
+            for (int i = 0; i < keys.length; i++) {
+                Owner value = values[i];
+                if (value == null || value == TOMBSTONE) {
+                    continue;
+                }
+                int index = (int) hash(keys[i]) & mask;
+                while (next.values[index] != null) {
+                    index = (index + 1) & mask;
+                }
+                next.keys[index] = keys[i];
+                next.values[index] = value;
+            }
+            return next;
+        }
+    }
+
+
+    /**
+     * Immutable owner events
+     */
+    private static final class Owner {
+
+        /**
+         * event ids
+         */
+        final int[] ids;
+
+        /**
+         * events
+         */
+        final Event[] events;
+
+
+        /**
+         * Construct Method
+         *
+         * @param ids    event ids
+         * @param events events
+         */
+        Owner(int[] ids, Event[] events) {
+            this.ids = ids;
+            this.events = events;
+        }
+
+
+        /**
+         * get event
+         *
+         * @param id event id
+         * @return Event|null
+         */
+        Event get(int id) {
+            for (int i = 0; i < ids.length; i++) {
+                if (ids[i] == id) {
+                    return events[i];
+                }
+            }
+            return null;
+        }
+
+
+        /**
+         * copy with event added or replaced
+         *
+         * @param id    event id
+         * @param event Event
+         * @return Owner
+         */
+        Owner with(int id, Event event) {
+            for (int i = 0; i < ids.length; i++) {
+                if (ids[i] == id) {
+                    Event[] copy = events.clone();
+                    copy[i] = event;
+                    return new Owner(ids, copy);
+                }
+            }
+            int length = ids.length;
+            int[] nextIds = new int[length + 1];
+            Event[] nextEvents = new Event[length + 1];
+            System.arraycopy(ids, 0, nextIds, 0, length);
+            System.arraycopy(events, 0, nextEvents, 0, length);
+            nextIds[length] = id;
+            nextEvents[length] = event;
+            return new Owner(nextIds, nextEvents);
+        }
+
+
+        /**
+         * copy without event
+         *
+         * @param id event id
+         * @return Owner
+         */
+        Owner without(int id) {
+            int length = ids.length;
+            int[] nextIds = new int[length - 1];
+            Event[] nextEvents = new Event[length - 1];
+            for (int i = 0, j = 0; i < length; i++) {
+                if (ids[i] != id) {
+                    nextIds[j] = ids[i];
+                    nextEvents[j] = events[i];
+                    j++;
+                }
+            }
+            return new Owner(nextIds, nextEvents);
+        }
+
+
+        /**
+         * events snapshot
+         *
+         * @return Map<Integer, Event>, unmodifiable
+         */
+        Map<Integer, Event> toMap() {
+            Map<Integer, Event> map = new HashMap<>(Math.max(4, ids.length * 2));
+            for (int i = 0; i < ids.length; i++) {
+                map.put(ids[i], events[i]);
+            }
+            return Collections.unmodifiableMap(map);
+        }
+    }
+}
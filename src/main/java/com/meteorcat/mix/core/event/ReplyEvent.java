@@ -0,0 +1,40 @@
+package com.meteorcat.mix.core.event;
+
+import java.util.function.Function;
+
+/**
+ * Event answering {@link IEventMonitor#ask}
+ * <p>
+ * Plain execute runs the function with a null payload and drops the result.
+ *
+ * @author MeteorCat
+ */
+public class ReplyEvent<P, R> extends Event {
+
+    /**
+     * Reply function
+     */
+    private final Function<P, R> function;
+
+
+    /**
+     * Construct Method
+     *
+     * @param function payload -> reply, runs serialized with the owner's other events
+     */
+    public ReplyEvent(Function<P, R> function) {
+        super(() -> function.apply(null));
+        this.function = function;
+    }
+
+
+    /**
+     * Answer payload
+     *
+     * @param payload request payload
+     * @return R
+     */
+    public R reply(P payload) {
+        return function.apply(payload);
+    }
+}
@@ -0,0 +1,501 @@
+package com.meteorcat.mix.core.event;
+
+import java.util.*;
+import java.util.concurrent.*;
+import static org.springframework.core.io.buffer.DefaultDataBufferFactory.DEFAULT_INITIAL_CAPACITY;
+
+/**
+ * Owner-sharded event monitor
+ * <p>
+ * Every owner is hashed to one of N single-threaded shards, the shard runs all executes and timers
+ * of the owner. Owner callbacks are serialized by the shard thread without synchronized(owner),
+ * owner state stays in one core's cache and every shard keeps its own timer queue.
+ *
+ * @author MeteorCat
+ */
+public class ShardedEventMonitor<_Owner, _Event> implements IEventMonitor<_Owner, _Event> {
+
+
+    /**
+     * Shards
+     */
+    private final ScheduledThreadPoolExecutor[] shards;
+
+
+    /**
+     * Events
+     */
+    private volatile IEventRegistry<_Owner, _Event> events = new EventRegistry<>();
+
+
+    /**
+     * Default ask timeout timer, fires on its own ticker so a busy shard can't hold back timeouts
+     */
+    private final EventTimingWheel wheel = new EventTimingWheel(Runnable::run);
+
+
+    /**
+     * Ask timeout timer
+     */
+    private volatile IEventTimer timer = wheel;
+
+
+    /**
+     * Construct Method
+     *
+     * @param shardSize shard count
+     */
+    public ShardedEventMonitor(int shardSize) {
+        this(shardSize, Executors.defaultThreadFactory());
+    }
+
+
+    /**
+     * Construct Method
+     *
+     * @param shardSize     shard count
+     * @param threadFactory ThreadFactory
+     */
+    public ShardedEventMonitor(int shardSize, ThreadFactory threadFactory) {
+        if (shardSize <= 0) {
+            throw new IllegalArgumentException("shardSize must be positive");
+        }
+        this.shards = new ScheduledThreadPoolExecutor[shardSize];
+        for (int i = 0; i < shardSize; i++) {
+            ScheduledThreadPoolExecutor shard = new ScheduledThreadPoolExecutor(1, threadFactory);
+            shard.setRemoveOnCancelPolicy(true);
+            shards[i] = shard;
+        }
+    }
+
+
+    /**
+     * get event registry
+     *
+     * @return IEventRegistry<_Owner, _Event>
+     */
+    public IEventRegistry<_Owner, _Event> getRegistry() {
+        return events;
+    }
+
+
+    /**
+     * Set event registry, such as LongEventRegistry, must be configured before any putEvent
+     *
+     * @param registry IEventRegistry<_Owner, _Event>
+     */
+    public void setRegistry(IEventRegistry<_Owner, _Event> registry) {
+        this.events = registry == null ? new EventRegistry<>() : registry;
+    }
+
+
+    /**
+     * get ask timeout timer
+     *
+     * @return IEventTimer
+     */
+    public IEventTimer getTimer() {
+        return timer;
+    }
+
+
+    /**
+     * Set ask timeout timer, timeouts complete futures on the timer thread
+     *
+     * @param timer IEventTimer
+     */
+    public void setTimer(IEventTimer timer) {
+        this.timer = timer == null ? wheel : timer;
+    }
+
+
+    /**
+     * get owner shard, work submitted to it is serialized with owner events
+     *
+     * @param owner Event owner
+     * @return ScheduledExecutorService
+     */
+    public ScheduledExecutorService getShard(_Owner owner) {
+        return shard(owner);
+    }
+
+
+    /**
+     * shard count
+     *
+     * @return int
+     */
+    public int getShardSize() {
+        return shards.length;
+    }
+
+
+    /**
+     * event exists?
+     *
+     * @param owner Event owner
+     * @return boolean
+     */
+    public boolean containsKey(_Owner owner) {
+        return events.containsKey(owner);
+    }
+
+
+    /**
+     * event exists?
+     *
+     * @param owner Event owner
+     * @param event Event name
+     * @return boolean
+     */
+    public boolean containsKey(_Owner owner, _Event event) {
+        return events.containsKey(owner, event);
+    }
+
+
+    /**
+     * get event runnable
+     *
+     * @param owner Event owner
+     * @return Optional<Map<_Event, Event>>
+     */
+    public Optional<Map<_Event, Event>> getEvent(_Owner owner) {
+        return Optional.ofNullable(events.get(owner));
+    }
+
+
+    /**
+     * get event runnable
+     *
+     * @param owner Event owner
+     * @param event Event name
+     * @return Optional<Event>
+     */
+    public Optional<Event> getEvent(_Owner owner, _Event event) {
+        return Optional.ofNullable(LongEventRegistry.lookup(events, owner, event));
+    }
+
+
+    /**
+     * add event runnable
+     *
+     * @param owner    Event owner
+     * @param event    Event name
+     * @param e        Runnable
+     * @param ownerCap Event capacity
+     */
+    public void putEvent(_Owner owner, _Event event, Event e, int ownerCap) {
+        events.put(owner, event, e, ownerCap);
+    }
+
+
+    /**
+     * add event runnable
+     *
+     * @param owner Event owner
+     * @param event Event name
+     * @param e     Runnable
+     */
+    public void putEvent(_Owner owner, _Event event, Event e) {
+        putEvent(owner, event, e, DEFAULT_INITIAL_CAPACITY);
+    }
+
+
+    /**
+     * Remove event runnable
+     *
+     * @param owner Event owner
+     * @param event Event name
+     */
+    public void remove(_Owner owner, _Event event) {
+        Event e = events.remove(owner, event);
+        if (e != null && e.getFuture() != null) {
+            e.getFuture().cancel(true);
+        }
+    }
+
+
+    /**
+     * Remove event runnable
+     *
+     * @param owner Event owner
+     */
+    public void remove(_Owner owner) {
+        Map<_Event, Event> removed = events.remove(owner);
+        if (removed == null) {
+            return;
+        }
+        for (Event e : removed.values()) {
+            ScheduledFuture<?> future = e.getFuture();
+            if (future != null) {
+                future.cancel(true);
+            }
+        }
+    }
+
+
+    /**
+     * Event execute on owner shard
+     *
+     * @param owner Event owner
+     * @param event Event name
+     */
+    @Override
+    public void execute(_Owner owner, _Event event) {
+        Event e = LongEventRegistry.lookup(events, owner, event);
+        if (e != null) {
+            shard(owner).execute(e.getTuple());
+        }
+    }
+
+
+    /**
+     * Event execute for many owners, one task per shard
+     *
+     * @param owners Event owners
+     * @param event  Event name
+     */
+    @Override
+    public void executeAll(Collection<_Owner> owners, _Event event) {
+        List<List<Runnable>> batches = new ArrayList<>(Collections.nCopies(shards.length, null));
+        for (_Owner owner : owners) {
+            Event e = LongEventRegistry.lookup(events, owner, event);
+            if (e == null) {
+                continue;
+            }
+            int index = index(owner);
+            List<Runnable> batch = batches.get(index);
+            if (batch == null) {
+                batch = new ArrayList<>();
+                batches.set(index, batch);
+            }
+            batch.add(e.getTuple());
+        }
+        for (int i = 0; i < shards.length; i++) {
+            List<Runnable> batch = batches.get(i);
+            if (batch != null) {
+                shards[i].execute(() -> runAll(batch));
+            }
+        }
+    }
+
+
+    /**
+     * Event execute for one owner, callbacks run in collection order as one task
+     *
+     * @param owner  Event owner
+     * @param events Event names
+     */
+    @Override
+    public void executeAll(_Owner owner, Collection<_Event> events) {
+        List<Runnable> batch = new ArrayList<>(events.size());
+        this.events.forEach(owner, events, (event, e) -> batch.add(e.getTuple()));
+        if (!batch.isEmpty()) {
+            shard(owner).execute(() -> runAll(batch));
+        }
+    }
+
+
+    /**
+     * Monitor event schedule on owner shard
+     *
+     * @param owner Event owner
+     * @param event Event name
+     * @param delay Event delay
+     * @param unit  Event timeunit
+     */
+    @Override
+    public void schedule(_Owner owner, _Event event, long delay, TimeUnit unit) {
+        Event e = LongEventRegistry.lookup(events, owner, event);
+        if (e != null) {
+            e.setFuture(shard(owner).schedule(e.getTuple(), delay, unit));
+        }
+    }
+
+
+    /**
+     * Monitor event schedule fixed rate on owner shard
+     *
+     * @param owner        Event owner
+     * @param event        Event name
+     * @param initialDelay Event initialization delay
+     * @param period       Event each delay
+     * @param unit         Event timeunit
+     */
+    @Override
+    public void scheduleAtFixedRate(_Owner owner, _Event event, long initialDelay, long period, TimeUnit unit) {
+        Event e = LongEventRegistry.lookup(events, owner, event);
+        if (e != null) {
+            e.setFuture(shard(owner).scheduleAtFixedRate(e.getTuple(), initialDelay, period, unit));
+        }
+    }
+
+
+    /**
+     * Monitor event schedule with fixed delay on owner shard
+     *
+     * @param owner        Event owner
+     * @param event        Event name
+     * @param initialDelay Event initialization delay
+     * @param delay        Event each delay
+     * @param unit         Event timeunit
+     */
+    @Override
+    public void scheduleWithFixedDelay(_Owner owner, _Event event, long initialDelay, long delay, TimeUnit unit) {
+        Event e = LongEventRegistry.lookup(events, owner, event);
+        if (e != null) {
+            e.setFuture(shard(owner).scheduleWithFixedDelay(e.getTuple(), initialDelay, delay, unit));
+        }
+    }
+
+
+    /**
+     * ask owner through its ReplyEvent, timeout tracked by the ask timeout timer
+     *
+     * @param owner   Event owner
+     * @param event   Event name of a ReplyEvent
+     * @param payload request payload
+     * @param timeout reply timeout, 0 waits forever
+     * @param unit    timeout unit
+     * @param <P>     payload type
+     * @param <R>     reply type
+     * @return CompletableFuture<R>
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <P, R> CompletableFuture<R> ask(_Owner owner, _Event event, P payload, long timeout, TimeUnit unit) {
+        CompletableFuture<R> future = new CompletableFuture<>();
+        Event e = LongEventRegistry.lookup(events, owner, event);
+        if (!(e instanceof ReplyEvent)) {
+            future.completeExceptionally(new IllegalArgumentException(String.format("%s of %s is not a ReplyEvent", event, owner)));
+            return future;
+        }
+        ReplyEvent<P, R> reply = (ReplyEvent<P, R>) e;
+        ScheduledThreadPoolExecutor shard = shard(owner);
+        try {
+            if (timeout > 0) {
+                ScheduledFuture<?> expire = timer.schedule(() -> future.completeExceptionally(
+                        new TimeoutException(String.format("%s of %s no reply in %d %s", event, owner, timeout, unit))), timeout, unit);
+                future.whenComplete((r, t) -> expire.cancel(false));
+            }
+            shard.execute(() -> {
+                if (future.isDone()) {
+                    return;
+                }
+                try {
+                    future.complete(reply.reply(payload));
+                } catch (Throwable throwable) {
+                    future.completeExceptionally(throwable);
+                    if (throwable instanceof Error) {
+                        throw (Error) throwable;
+                    }
+                }
+            });
+        } catch (RejectedExecutionException exception) {
+            future.completeExceptionally(exception);
+        }
+        return future;
+    }
+
+
+    /**
+     * Shutdown every shard
+     */
+    public void shutdown() {
+        for (ScheduledThreadPoolExecutor shard : shards) {
+            shard.shutdown();
+        }
+        wheel.shutdown();
+    }
+
+
+    /**
+     * Shutdown every shard now
+     *
+     * @return List<Runnable> never started tasks
+     */
+    public List<Runnable> shutdownNow() {
+        List<Runnable> runnables = new ArrayList<>();
+        for (ScheduledThreadPoolExecutor shard : shards) {
+            runnables.addAll(shard.shutdownNow());
+        }
+        wheel.shutdown();
+        return runnables;
+    }
+
+
+    /**
+     * all shards shutdown?
+     *
+     * @return boolean
+     */
+    public boolean isShutdown() {
+        for (ScheduledThreadPoolExecutor shard : shards) {
+            if (!shard.isShutdown()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    /**
+     * Wait every shard termination
+     *
+     * @param timeout wait time
+     * @param unit    timeunit
+     * @return boolean
+     * @throws InterruptedException interrupted
+     */
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        for (ScheduledThreadPoolExecutor shard : shards) {
+            if (!shard.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    /**
+     * owner shard
+     *
+     * @param owner Event owner
+     * @return ScheduledThreadPoolExecutor
+     */
+    private ScheduledThreadPoolExecutor shard(_Owner owner) {
+        return shards[index(owner)];
+    }
+
+
+    /**
+     * owner shard index
+     *
+     * @param owner Event owner
+     * @return int
+     */
+    private int index(_Owner owner) {
+        int hash = owner.hashCode();
+        hash ^= hash >>> 16;
+        return Math.floorMod(hash * 0x9E3779B9, shards.length);
+    }
+
+
+    /**
+     * Run callbacks, one failure does not skip the rest, the first one is rethrown afterwards
+     *
+     * @param runnables callbacks
+     */
+    private static void runAll(List<Runnable> runnables) {
+        Throwable failure = null;
+        for (Runnable runnable : runnables) {
+            try {
+                runnable.run();
+            } catch (Throwable throwable) {
+                failure = EventMonitor.failed(failure, throwable);
+            }
+        }
+        EventMonitor.rethrow(failure);
+    }
+}
@@ -0,0 +1,133 @@
+package com.meteorcat.mix.core.event;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Virtual thread event monitor
+ * <p>
+ * Owner callbacks run in mailbox mode on a virtual-thread-per-task executor, so blocking callbacks
+ * (database, remote calls) never occupy a pool worker; pool threads only fire timers.
+ * Per-owner ordering is the same as {@link EventMonitor} mailbox mode.
+ * Runtimes without virtual threads (JDK 11 - 20) fall back to draining mailboxes on the pool.
+ *
+ * @author MeteorCat
+ */
+public class VirtualEventMonitor<_Owner, _Event> extends EventMonitor<_Owner, _Event> {
+
+
+    /**
+     * Virtual thread executor, null when runtime has no virtual threads
+     */
+    private final ExecutorService virtual;
+
+
+    /**
+     * Construct Method
+     *
+     * @param corePoolSize timer thread size
+     */
+    public VirtualEventMonitor(int corePoolSize) {
+        super(corePoolSize);
+        this.virtual = newVirtualExecutor();
+        setup();
+    }
+
+
+    /**
+     * Construct Method
+     *
+     * @param corePoolSize  timer thread size
+     * @param threadFactory ThreadFactory
+     */
+    public VirtualEventMonitor(int corePoolSize, ThreadFactory threadFactory) {
+        super(corePoolSize, threadFactory);
+        this.virtual = newVirtualExecutor();
+        setup();
+    }
+
+
+    /**
+     * running on virtual threads?
+     *
+     * @return boolean
+     */
+    public boolean isVirtual() {
+        return virtual != null;
+    }
+
+
+    /**
+     * Shutdown timers and virtual executor
+     */
+    @Override
+    public void shutdown() {
+        super.shutdown();
+        if (virtual != null) {
+            virtual.shutdown();
+        }
+    }
+
+
+    /**
+     * Shutdown timers and virtual executor now
+     *
+     * @return List<Runnable>
+     */
+    @Override
+    public List<Runnable> shutdownNow() {
+        List<Runnable> runnables = super.shutdownNow();
+        if (virtual != null) {
+            runnables.addAll(virtual.shutdownNow());
+        }
+        return runnables;
+    }
+
+
+    /**
+     * Wait timers and virtual executor termination
+     *
+     * @param timeout wait time
+     * @param unit    timeunit
+     * @return boolean
+     * @throws InterruptedException interrupted
+     */
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        if (!super.awaitTermination(timeout, unit)) {
+            return false;
+        }
+        return virtual == null || virtual.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+    }
+
+
+    /**
+     * Enable mailbox mode on virtual executor
+     */
+    private void setup() {
+        setMailbox(true);
+        if (virtual != null) {
+            setExecutor(virtual);
+        }
+    }
+
+
+    /**
+     * Executors.newVirtualThreadPerTaskExecutor() when runtime supports it
+     *
+     * @return ExecutorService|null
+     */
+    private static ExecutorService newVirtualExecutor() {
+        try {
+            Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) method.invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException exception) {
+            return null;
+        }
+    }
+}
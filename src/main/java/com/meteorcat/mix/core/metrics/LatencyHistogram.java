@@ -0,0 +1,256 @@
+package com.meteorcat.mix.core.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram
+ * <p>
+ * Log-linear buckets: 8 sub-buckets per power of two (about 12% precision), values up to 2^40 nanoseconds,
+ * larger values fall in the last bucket. Recording is one array increment plus striped count and sum.
+ *
+ * @author MeteorCat
+ */
+public class LatencyHistogram {
+
+    /**
+     * Sub-bucket bits per power of two
+     */
+    private static final int SUB_BITS = 3;
+
+    /**
+     * Sub-buckets per power of two
+     */
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+
+    /**
+     * Largest tracked exponent
+     */
+    private static final int MAX_EXPONENT = 40;
+
+    /**
+     * Bucket count
+     */
+    private static final int BUCKETS = (MAX_EXPONENT - SUB_BITS + 2) * SUB_COUNT;
+
+
+    /**
+     * Bucket counts
+     */
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+
+    /**
+     * Recorded values
+     */
+    private final LongAdder count = new LongAdder();
+
+    /**
+     * Sum of recorded values
+     */
+    private final LongAdder sum = new LongAdder();
+
+    /**
+     * Max recorded value
+     */
+    private final AtomicLong max = new AtomicLong();
+
+
+    /**
+     * Record value
+     *
+     * @param value nanoseconds, negative counts as 0
+     */
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        buckets.incrementAndGet(index(value));
+        count.increment();
+        sum.add(value);
+        long current;
+        while (value > (current = max.get())) {
+            if (max.compareAndSet(current, value)) {
+                break;
+            }
+        }
+    }
+
+
+    /**
+     * Recorded values
+     *
+     * @return long
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+
+    /**
+     * Copy current state
+     *
+     * @return Snapshot
+     */
+    public Snapshot snapshot() {
+        long[] counts = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets.get(i);
+            total += counts[i];
+        }
+        return new Snapshot(counts, total, sum.sum(), max.get());
+    }
+
+
+    /**
+     * Bucket index of value
+     *
+     * @param value non-negative value
+     * @return int
+     */
+    static int index(long value) {
+        if (value < SUB_COUNT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKETS - 1;
+        }
+        int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_COUNT - 1);
+        return (exponent - SUB_BITS + 1) * SUB_COUNT + sub;
+    }
+
+
+    /**
+     * Upper bound of bucket
+     *
+     * @param index bucket index
+     * @return long
+     */
+    static long upper(int index) {
+        if (index < SUB_COUNT) {
+            return index;
+        }
+        int exponent = index / SUB_COUNT + SUB_BITS - 1;
+        long sub = index % SUB_COUNT;
+        return ((SUB_COUNT + sub + 1) << (exponent - SUB_BITS)) - 1;
+    }
+
+
+    /**
+     * Histogram snapshot
+     */
+    public static class Snapshot {
+
+        /**
+         * Bucket counts
+         */
+        private final long[] counts;
+
+        /**
+         * Recorded values
+         */
+        private final long count;
+
+        /**
+         * Sum of values
+         */
+        private final long sum;
+
+        /**
+         * Max value
+         */
+        private final long max;
+
+
+        /**
+         * Construct Method
+         *
+         * @param counts bucket counts
+         * @param count  recorded values
+         * @param sum    sum of values
+         * @param max    max value
+         */
+        Snapshot(long[] counts, long count, long sum, long max) {
+            this.counts = counts;
+            this.count = count;
+            this.sum = sum;
+            this.max = max;
+        }
+
+
+        /**
+         * Recorded values
+         *
+         * @return long
+         */
+        public long getCount() {
+            return count;
+        }
+
+
+        /**
+         * Sum of values
+         *
+         * @return long
+         */
+        public long getSum() {
+            return sum;
+        }
+
+
+        /**
+         * Max value
+         *
+         * @return long
+         */
+        public long getMax() {
+            return max;
+        }
+
+
+        /**
+         * Mean value
+         *
+         * @return double
+         */
+        public double getMean() {
+            return count == 0 ? 0.0 : (double) sum / count;
+        }
+
+
+        /**
+         * Value at percentile, bucket upper bound capped by max
+         *
+         * @param percentile 0.0 - 100.0
+         * @return long
+         */
+        public long getPercentile(double percentile) {
+            if (count == 0) {
+                return 0L;
+            }
+            long rank = (long) Math.ceil(Math.min(100.0, Math.max(0.0, percentile)) / 100.0 * count);
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= Math.max(1L, rank)) {
+                    return Math.min(upper(i), max);
+                }
+            }
+            return max;
+        }
+
+
+        /**
+         * inherit to string
+         *
+         * @return String
+         */
+        @Override
+        public String toString() {
+            return String.format("count=%d mean=%.0f p50=%d p99=%d max=%d",
+                    count, getMean(), getPercentile(50), getPercentile(99), max);
+        }
+    }
+}
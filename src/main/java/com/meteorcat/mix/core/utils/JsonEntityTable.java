@@ -0,0 +1,377 @@
+package com.meteorcat.mix.core.utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Memory-mapped json table { "1": { "key":111 } } keyed by int id
+ * <p>
+ * The file is mapped once and scanned into sorted id, offset and length arrays without decoding any row.
+ * A row is decoded on first access and kept in a bounded LRU cache, the rest stay in the page cache.
+ *
+ * @author MeteorCat
+ * @param <V> Row class
+ */
+public final class JsonEntityTable<V> {
+
+    /**
+     * Default decoded rows kept
+     */
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    /**
+     * Mapped file
+     */
+    private final ByteBuffer buffer;
+
+    /**
+     * Row reader
+     */
+    private final ObjectReader reader;
+
+    /**
+     * Sorted row ids
+     */
+    private final int[] ids;
+
+    /**
+     * Row byte offsets, by id index
+     */
+    private final int[] offsets;
+
+    /**
+     * Row byte lengths, by id index
+     */
+    private final int[] lengths;
+
+    /**
+     * Decoded rows, access ordered
+     */
+    private final Map<Integer, V> cache;
+
+
+    /**
+     * Construct Method
+     *
+     * @param buffer   mapped file
+     * @param reader   row reader
+     * @param ids      sorted row ids
+     * @param offsets  row byte offsets
+     * @param lengths  row byte lengths
+     * @param capacity decoded rows kept
+     */
+    private JsonEntityTable(ByteBuffer buffer, ObjectReader reader, int[] ids, int[] offsets, int[] lengths, int capacity) {
+        this.buffer = buffer;
+        this.reader = reader;
+        this.ids = ids;
+        this.offsets = offsets;
+        this.lengths = lengths;
+        int limit = Math.max(1, capacity);
+        this.cache = new LinkedHashMap<Integer, V>(Math.min(limit, 1 << 16) * 4 / 3 + 1, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, V> eldest) {
+                return size() > limit;
+            }
+        };
+    }
+
+
+    /**
+     * Map table file
+     *
+     * @param mapper   ObjectMapper
+     * @param path     json file, under 2 GiB
+     * @param clazz    Row class
+     * @param capacity decoded rows kept
+     * @param <V>      Row class
+     * @return Optional<JsonEntityTable<V>>
+     */
+    public static <V> Optional<JsonEntityTable<V>> of(ObjectMapper mapper, Path path, Class<V> clazz, int capacity) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException(String.format("%s exceeds %d bytes", path, Integer.MAX_VALUE));
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return Optional.of(index(JsonNodeExtends.reader(mapper, clazz), buffer, capacity));
+        } catch (IOException e) {
+            e.printStackTrace();
+            return Optional.empty();
+        }
+    }
+
+
+    /**
+     * Map table file
+     *
+     * @param path     json file, under 2 GiB
+     * @param clazz    Row class
+     * @param capacity decoded rows kept
+     * @param <V>      Row class
+     * @return Optional<JsonEntityTable<V>>
+     */
+    public static <V> Optional<JsonEntityTable<V>> of(Path path, Class<V> clazz, int capacity) {
+        return of(JsonNodeExtends.getMapper(), path, clazz, capacity);
+    }
+
+
+    /**
+     * Map table file, keep {@link #DEFAULT_CAPACITY} decoded rows
+     *
+     * @param path  json file, under 2 GiB
+     * @param clazz Row class
+     * @param <V>   Row class
+     * @return Optional<JsonEntityTable<V>>
+     */
+    public static <V> Optional<JsonEntityTable<V>> of(Path path, Class<V> clazz) {
+        return of(path, clazz, DEFAULT_CAPACITY);
+    }
+
+
+    /**
+     * Scan row positions without tokenizing rows, a repeated id keeps its last row
+     *
+     * @param reader   row reader
+     * @param buffer   mapped file
+     * @param capacity decoded rows kept
+     * @param <V>      Row class
+     * @return JsonEntityTable<V>
+     * @throws IOException malformed table
+     */
+    private static <V> JsonEntityTable<V> index(ObjectReader reader, ByteBuffer buffer, int capacity) throws IOException {
+        int size = 0;
+        long[] keys = new long[64];
+        int[] starts = new int[64];
+        int[] ends = new int[64];
+        int limit = buffer.limit();
+        int pos = skipSpace(buffer, 0);
+        if (pos >= limit || buffer.get(pos) != '{') {
+            throw new IOException("table is not a json object");
+        }
+        pos = skipSpace(buffer, pos + 1);
+        if (pos < limit && buffer.get(pos) == '}') {
+            pos = limit;
+        }
+        while (pos < limit) {
+            if (buffer.get(pos) != '"') {
+                throw new IOException(String.format("row id expected at byte %d", pos));
+            }
+            long id = 0;
+            boolean negative = pos + 1 < limit && buffer.get(pos + 1) == '-';
+            int digit = negative ? pos + 2 : pos + 1;
+            int digits = 0;
+            for (; digit < limit && buffer.get(digit) != '"'; digit++, digits++) {
+                int value = buffer.get(digit) - '0';
+                if (value < 0 || value > 9 || digits > 10) {
+                    throw new IOException(String.format("row id at byte %d is not an int", pos));
+                }
+                id = id * 10 + value;
+            }
+            id = negative ? -id : id;
+            if (digits == 0 || id != (int) id) {
+                throw new IOException(String.format("row id at byte %d is not an int", pos));
+            }
+            pos = skipSpace(buffer, digit + 1);
+            if (pos >= limit || buffer.get(pos) != ':') {
+                throw new IOException(String.format("':' expected at byte %d", pos));
+            }
+            int start = skipSpace(buffer, pos + 1);
+            int end = skipValue(buffer, start);
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                starts = Arrays.copyOf(starts, size * 2);
+                ends = Arrays.copyOf(ends, size * 2);
+            }
+            keys[size] = id << 32 | size;
+            starts[size] = start;
+            ends[size] = end;
+            size++;
+
+            pos = skipSpace(buffer, end);
+            byte next = pos < limit ? buffer.get(pos) : 0;
+            if (next == '}') {
+                break;
+            } else if (next != ',') {
+                throw new IOException(String.format("',' or '}' expected at byte %d", pos));
+            }
+            pos = skipSpace(buffer, pos + 1);
+        }
+
+        Arrays.sort(keys, 0, size);
+        int count = 0;
+        int[] ids = new int[size];
+        int[] offsets = new int[size];
+        int[] lengths = new int[size];
+        for (int i = 0; i < size; i++) {
+            int id = (int) (keys[i] >> 32);
+            int row = (int) keys[i];
+            if (count > 0 && ids[count - 1] == id) {
+                count--;
+            }
+            ids[count] = id;
+            offsets[count] = starts[row];
+            lengths[count] = ends[row] - starts[row];
+            count++;
+        }
+        return new JsonEntityTable<>(buffer, reader, Arrays.copyOf(ids, count), Arrays.copyOf(offsets, count), Arrays.copyOf(lengths, count), capacity);
+    }
+
+
+    /**
+     * Skip json whitespace
+     *
+     * @param buffer mapped file
+     * @param pos    byte offset
+     * @return int, first other byte offset
+     */
+    private static int skipSpace(ByteBuffer buffer, int pos) {
+        int limit = buffer.limit();
+        while (pos < limit) {
+            byte b = buffer.get(pos);
+            if (b != ' ' && b != '\n' && b != '\r' && b != '\t') {
+                break;
+            }
+            pos++;
+        }
+        return pos;
+    }
+
+
+    /**
+     * Skip one json value, only strings and nesting are tracked
+     *
+     * @param buffer mapped file
+     * @param pos    value byte offset
+     * @return int, byte offset after value
+     * @throws IOException value not closed
+     */
+    private static int skipValue(ByteBuffer buffer, int pos) throws IOException {
+        int limit = buffer.limit();
+        int depth = 0;
+        boolean string = false;
+        for (int i = pos; i < limit; i++) {
+            byte b = buffer.get(i);
+            if (string) {
+                if (b == '\\') {
+                    i++;
+                } else if (b == '"') {
+                    string = false;
+                    if (depth == 0) {
+                        return i + 1;
+                    }
+                }
+            } else if (b == '"') {
+                string = true;
+            } else if (b == '{' || b == '[') {
+                depth++;
+            } else if (b == '}' || b == ']') {
+                if (depth == 0) {
+                    return i;
+                }
+                if (--depth == 0) {
+                    return i + 1;
+                }
+            } else if (depth == 0 && (b == ',' || b == ' ' || b == '\n' || b == '\r' || b == '\t')) {
+                return i;
+            }
+        }
+        throw new IOException(String.format("value at byte %d is not closed", pos));
+    }
+
+
+    /**
+     * Row of id, decoded on first access
+     *
+     * @param id row id
+     * @return Optional<V>
+     */
+    public Optional<V> get(int id) {
+        V value;
+        synchronized (cache) {
+            value = cache.get(id);
+        }
+        if (value != null) {
+            return Optional.of(value);
+        }
+        int index = Arrays.binarySearch(ids, id);
+        if (index < 0) {
+            return Optional.empty();
+        }
+        try {
+            byte[] row = new byte[lengths[index]];
+            ByteBuffer slice = buffer.duplicate();
+            slice.position(offsets[index]);
+            slice.get(row);
+            value = reader.readValue(row);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return Optional.empty();
+        }
+        if (value != null) {
+            synchronized (cache) {
+                cache.put(id, value);
+            }
+        }
+        return Optional.ofNullable(value);
+    }
+
+
+    /**
+     * Row exists?
+     *
+     * @param id row id
+     * @return boolean
+     */
+    public boolean containsKey(int id) {
+        return Arrays.binarySearch(ids, id) >= 0;
+    }
+
+
+    /**
+     * Rows
+     *
+     * @return int
+     */
+    public int size() {
+        return ids.length;
+    }
+
+
+    /**
+     * Row ids in ascending order
+     *
+     * @return int[], copy
+     */
+    public int[] getIds() {
+        return ids.clone();
+    }
+
+
+    /**
+     * Decoded rows currently cached
+     *
+     * @return int
+     */
+    public int getCached() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+
+    /**
+     * Drop decoded rows
+     */
+    public void clear() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+}
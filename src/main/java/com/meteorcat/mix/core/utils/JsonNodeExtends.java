@@ -1,11 +1,25 @@
 package com.meteorcat.mix.core.utils;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedOutputStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Type;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 
 /**
  * JsonNode simple tools
@@ -14,9 +28,92 @@ import java.util.*;
 public final class JsonNodeExtends {
 
     /**
-     * Json Parser
+     * Json Parser, shared by every overload without ObjectMapper
+     */
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    /**
+     * Readers of shared mapper by type
+     */
+    private static final Map<Type, ObjectReader> readers = new ConcurrentHashMap<>();
+
+    /**
+     * Writers of shared mapper by type
+     */
+    private static final Map<Type, ObjectWriter> writers = new ConcurrentHashMap<>();
+
+    /**
+     * Shared Json Parser, change its configuration through {@link #configure(Consumer)} only
+     * @return ObjectMapper
      */
-    private static ObjectMapper mapper;
+    public static ObjectMapper getMapper(){
+        return mapper;
+    }
+
+
+    /**
+     * Configure shared mapper and drop readers and writers built from the previous configuration,
+     * including those of {@link NodeCodec#JSON}
+     * @param configurer mapper change, such as registering a module or a feature
+     */
+    public static synchronized void configure(Consumer<ObjectMapper> configurer){
+        configurer.accept(mapper);
+        clear();
+    }
+
+
+    /**
+     * Drop cached readers and writers of shared mapper
+     */
+    static void clear(){
+        readers.clear();
+        writers.clear();
+        NodeCodec.JSON.clear();
+    }
+
+
+    /**
+     * Cached reader of shared mapper
+     * @param type target type, such as Class or ParameterizedType
+     * @return ObjectReader
+     */
+    public static ObjectReader reader(Type type){
+        ObjectReader reader = readers.get(type);
+        return reader != null ? reader : readers.computeIfAbsent(type, k -> mapper.readerFor(mapper.getTypeFactory().constructType(k)));
+    }
+
+
+    /**
+     * Reader of mapper, cached if mapper is the shared one
+     * @param mapper ObjectMapper
+     * @param type target type
+     * @return ObjectReader
+     */
+    public static ObjectReader reader(ObjectMapper mapper, Type type){
+        return mapper == JsonNodeExtends.mapper ? reader(type) : mapper.readerFor(mapper.getTypeFactory().constructType(type));
+    }
+
+
+    /**
+     * Cached writer of shared mapper
+     * @param type root type, such as Class or ParameterizedType
+     * @return ObjectWriter
+     */
+    public static ObjectWriter writer(Type type){
+        ObjectWriter writer = writers.get(type);
+        return writer != null ? writer : writers.computeIfAbsent(type, k -> mapper.writerFor(mapper.getTypeFactory().constructType(k)));
+    }
+
+
+    /**
+     * Writer of mapper, cached if mapper is the shared one
+     * @param mapper ObjectMapper
+     * @param type root type
+     * @return ObjectWriter
+     */
+    public static ObjectWriter writer(ObjectMapper mapper, Type type){
+        return mapper == JsonNodeExtends.mapper ? writer(type) : mapper.writerFor(mapper.getTypeFactory().constructType(type));
+    }
 
 
     /**
@@ -132,7 +229,7 @@ public final class JsonNodeExtends {
     @SuppressWarnings("unchecked")
     public static<K,V> Optional<Map<K,V>> isMap(ObjectMapper mapper,String data){
         try{
-            return Optional.ofNullable(mapper.readValue(data,Map.class));
+            return Optional.ofNullable(reader(mapper,Map.class).readValue(data));
         }catch (JsonProcessingException e){
             e.printStackTrace();
             return Optional.empty();
@@ -147,11 +244,14 @@ public final class JsonNodeExtends {
      * @param <K> Map Key
      * @param <V> Map Value
      */
+    @SuppressWarnings("unchecked")
     public static<K,V> Optional<Map<K,V>> isMap(String data){
-        if(mapper == null){
-            mapper = new ObjectMapper();
+        try{
+            return Optional.ofNullable(reader(Map.class).readValue(data));
+        }catch (JsonProcessingException e){
+            e.printStackTrace();
+            return Optional.empty();
         }
-        return isMap(mapper,data);
     }
 
 
@@ -165,7 +265,7 @@ public final class JsonNodeExtends {
     @SuppressWarnings("unchecked")
     public static<V> Optional<List<V>> isList(ObjectMapper mapper,String data){
         try{
-            return Optional.ofNullable(mapper.readValue(data,List.class));
+            return Optional.ofNullable(reader(mapper,List.class).readValue(data));
         }catch (Exception e){
             e.printStackTrace();
             return Optional.empty();
@@ -179,11 +279,14 @@ public final class JsonNodeExtends {
      * @return Optional<List<V>>
      * @param <V> List value
      */
+    @SuppressWarnings("unchecked")
     public static<V> Optional<List<V>> isList(String data){
-        if(mapper == null){
-            mapper = new ObjectMapper();
+        try{
+            return Optional.ofNullable(reader(List.class).readValue(data));
+        }catch (Exception e){
+            e.printStackTrace();
+            return Optional.empty();
         }
-        return isList(mapper,data);
     }
 
 
@@ -199,7 +302,7 @@ public final class JsonNodeExtends {
      */
     public static <V> Optional<String> isListStr(ObjectMapper mapper, List<V> list){
         try{
-            return Optional.ofNullable(mapper.writeValueAsString(list));
+            return Optional.ofNullable(writer(mapper,List.class).writeValueAsString(list));
         }catch (Exception e){
             e.printStackTrace();
             return Optional.empty();
@@ -214,10 +317,12 @@ public final class JsonNodeExtends {
      * @param <V> List value
      */
     public static <V> Optional<String> isListStr(List<V> list){
-        if(mapper == null){
-            mapper = new ObjectMapper();
+        try{
+            return Optional.ofNullable(writer(List.class).writeValueAsString(list));
+        }catch (Exception e){
+            e.printStackTrace();
+            return Optional.empty();
         }
-        return isListStr(mapper,list);
     }
 
 
@@ -232,7 +337,7 @@ public final class JsonNodeExtends {
      */
     public static <K,V> Optional<String> isMapStr(ObjectMapper mapper, Map<K,V> map){
         try{
-            return Optional.ofNullable(mapper.writeValueAsString(map));
+            return Optional.ofNullable(writer(mapper,Map.class).writeValueAsString(map));
         }catch (Exception e){
             e.printStackTrace();
             return Optional.empty();
@@ -248,15 +353,17 @@ public final class JsonNodeExtends {
      * @param <V> Map Value
      */
     public static <K,V> Optional<String> isMapStr(Map<K,V> map){
-        if(mapper == null){
-            mapper = new ObjectMapper();
+        try{
+            return Optional.ofNullable(writer(Map.class).writeValueAsString(map));
+        }catch (Exception e){
+            e.printStackTrace();
+            return Optional.empty();
         }
-        return isMapStr(mapper,map);
     }
 
 
     /**
-     * Parse json { "1": { "key":111 } }
+     * Parse json { "1": { "key":111 } }, rows are converted from the tree without re-parsing
      * @param mapper ObjectMapper
      * @param node JsonNode
      * @param clazz Convert class
@@ -264,16 +371,15 @@ public final class JsonNodeExtends {
      */
     public static<V> Optional<Map<String,V>> isEntity(ObjectMapper mapper,JsonNode node,Class<V> clazz){
         try{
+            ObjectReader reader = reader(mapper,clazz);
             Iterator<Map.Entry<String,JsonNode>> elements = node.fields();
-            Map<String,V> wrapper = new HashMap<>(node.size());
+            Map<String,V> wrapper = new HashMap<>(Math.max(16, node.size() * 4 / 3 + 1));
             while (elements.hasNext()){
                 Map.Entry<String,JsonNode> element = elements.next();
-                String key = element.getKey();
-                V e = mapper.readValue(element.getValue().toString(),clazz);
-                wrapper.put(key,e);
+                wrapper.put(element.getKey(),reader.readValue(element.getValue()));
             }
             return Optional.of(wrapper);
-        }catch (JsonProcessingException e){
+        }catch (IOException e){
             e.printStackTrace();
             return Optional.empty();
         }
@@ -287,13 +393,118 @@ public final class JsonNodeExtends {
      * @return Optional<Map<String,V>>
      */
     public static<V> Optional<Map<String,V>> isEntity(JsonNode node,Class<V> clazz){
-        if(mapper == null){
-            mapper = new ObjectMapper();
-        }
         return isEntity(mapper,node,clazz);
     }
 
 
+    /**
+     * Stream json { "1": { "key":111 } } straight into rows, no tree is built
+     * @param mapper ObjectMapper
+     * @param data String
+     * @param clazz Convert class
+     * @return Optional<Map<String,V>>
+     */
+    public static<V> Optional<Map<String,V>> isEntity(ObjectMapper mapper,String data,Class<V> clazz){
+        try{
+            return Optional.ofNullable(reader(mapper,entityType(mapper,clazz)).readValue(data));
+        }catch (IOException e){
+            e.printStackTrace();
+            return Optional.empty();
+        }
+    }
+
+
+    /**
+     * Stream json { "1": { "key":111 } } straight into rows, no tree is built
+     * @param data String
+     * @param clazz Convert class
+     * @return Optional<Map<String,V>>
+     */
+    public static<V> Optional<Map<String,V>> isEntity(String data,Class<V> clazz){
+        return isEntity(mapper,data,clazz);
+    }
+
+
+    /**
+     * Stream json { "1": { "key":111 } } straight into rows, no tree is built
+     * @param mapper ObjectMapper
+     * @param input InputStream, closed after reading
+     * @param clazz Convert class
+     * @return Optional<Map<String,V>>
+     */
+    public static<V> Optional<Map<String,V>> isEntity(ObjectMapper mapper,InputStream input,Class<V> clazz){
+        try{
+            return Optional.ofNullable(reader(mapper,entityType(mapper,clazz)).readValue(input));
+        }catch (IOException e){
+            e.printStackTrace();
+            return Optional.empty();
+        }
+    }
+
+
+    /**
+     * Stream json { "1": { "key":111 } } straight into rows, no tree is built
+     * @param input InputStream, closed after reading
+     * @param clazz Convert class
+     * @return Optional<Map<String,V>>
+     */
+    public static<V> Optional<Map<String,V>> isEntity(InputStream input,Class<V> clazz){
+        return isEntity(mapper,input,clazz);
+    }
+
+
+    /**
+     * Parse json { "1": { "key":111 } }, rows are converted from the tree in parallel, for very large tables
+     * @param mapper ObjectMapper
+     * @param node JsonNode
+     * @param clazz Convert class
+     * @return Optional<Map<String,V>>
+     */
+    public static<V> Optional<Map<String,V>> isEntityParallel(ObjectMapper mapper,JsonNode node,Class<V> clazz){
+        ObjectReader reader = reader(mapper,clazz);
+        List<Map.Entry<String,JsonNode>> elements = new ArrayList<>(node.size());
+        node.fields().forEachRemaining(elements::add);
+        try{
+            Map<String,V> wrapper = elements.parallelStream().collect(
+                    HashMap::new,
+                    (map, element) -> {
+                        try{
+                            map.put(element.getKey(),reader.readValue(element.getValue()));
+                        }catch (IOException e){
+                            throw new UncheckedIOException(e);
+                        }
+                    },
+                    HashMap::putAll);
+            return Optional.of(wrapper);
+        }catch (UncheckedIOException e){
+            e.getCause().printStackTrace();
+            return Optional.empty();
+        }
+    }
+
+
+    /**
+     * Parse json { "1": { "key":111 } }, rows are converted from the tree in parallel, for very large tables
+     * @param node JsonNode
+     * @param clazz Convert class
+     * @return Optional<Map<String,V>>
+     */
+    public static<V> Optional<Map<String,V>> isEntityParallel(JsonNode node,Class<V> clazz){
+        return isEntityParallel(mapper,node,clazz);
+    }
+
+
+    /**
+     * Map<String,V> type of entity rows
+     * @param mapper ObjectMapper
+     * @param clazz row class
+     * @return JavaType
+     */
+    private static JavaType entityType(ObjectMapper mapper,Class<?> clazz){
+        return mapper.getTypeFactory().constructMapType(HashMap.class,String.class,clazz);
+    }
+
+
 
     /**
      * Map convert JsonNode
@@ -312,9 +523,6 @@ public final class JsonNodeExtends {
      * @return Optional<JsonNode>
      */
     public static<K,V> Optional<JsonNode> isNode(Map<K,V> data){
-        if(mapper == null){
-            mapper = new ObjectMapper();
-        }
         return isNode(mapper,data);
     }
 
@@ -335,7 +543,390 @@ public final class JsonNodeExtends {
     }
 
 
+    /**
+     * String convert JsonNode
+     * @param data String
+     * @return JsonNode
+     */
+    public static Optional<JsonNode> isNode(String data){
+        return isNode(mapper,data);
+    }
+
+
+    /**
+     * byte[] convert JsonNode
+     * @param mapper ObjectMapper
+     * @param data UTF-8 bytes
+     * @return Optional<JsonNode>
+     */
+    public static Optional<JsonNode> isNode(ObjectMapper mapper,byte[] data){
+        return isRead(reader(mapper,JsonNode.class),data);
+    }
+
+
+    /**
+     * byte[] convert JsonNode
+     * @param data UTF-8 bytes
+     * @return Optional<JsonNode>
+     */
+    public static Optional<JsonNode> isNode(byte[] data){
+        return isRead(reader(JsonNode.class),data);
+    }
+
+
+    /**
+     * ByteBuffer convert JsonNode
+     * @param mapper ObjectMapper
+     * @param data UTF-8 bytes between position and limit, position unchanged
+     * @return Optional<JsonNode>
+     */
+    public static Optional<JsonNode> isNode(ObjectMapper mapper,ByteBuffer data){
+        return isRead(reader(mapper,JsonNode.class),data);
+    }
+
+
+    /**
+     * ByteBuffer convert JsonNode
+     * @param data UTF-8 bytes between position and limit, position unchanged
+     * @return Optional<JsonNode>
+     */
+    public static Optional<JsonNode> isNode(ByteBuffer data){
+        return isRead(reader(JsonNode.class),data);
+    }
+
+
+    /**
+     * InputStream convert JsonNode
+     * @param mapper ObjectMapper
+     * @param input UTF-8 stream, closed after reading
+     * @return Optional<JsonNode>
+     */
+    public static Optional<JsonNode> isNode(ObjectMapper mapper,InputStream input){
+        return isRead(reader(mapper,JsonNode.class),input);
+    }
 
 
+    /**
+     * InputStream convert JsonNode
+     * @param input UTF-8 stream, closed after reading
+     * @return Optional<JsonNode>
+     */
+    public static Optional<JsonNode> isNode(InputStream input){
+        return isRead(reader(JsonNode.class),input);
+    }
+
 
+    /**
+     * byte[] convert Map
+     * @param mapper ObjectMapper
+     * @param data UTF-8 bytes
+     * @return Optional<Map<K,V>>
+     * @param <K> Map Key
+     * @param <V> Map Value
+     */
+    public static<K,V> Optional<Map<K,V>> isMap(ObjectMapper mapper,byte[] data){
+        return isRead(reader(mapper,Map.class),data);
+    }
+
+
+    /**
+     * byte[] convert Map
+     * @param data UTF-8 bytes
+     * @return Optional<Map<K,V>>
+     * @param <K> Map Key
+     * @param <V> Map Value
+     */
+    public static<K,V> Optional<Map<K,V>> isMap(byte[] data){
+        return isRead(reader(Map.class),data);
+    }
+
+
+    /**
+     * ByteBuffer convert Map
+     * @param mapper ObjectMapper
+     * @param data UTF-8 bytes between position and limit, position unchanged
+     * @return Optional<Map<K,V>>
+     * @param <K> Map Key
+     * @param <V> Map Value
+     */
+    public static<K,V> Optional<Map<K,V>> isMap(ObjectMapper mapper,ByteBuffer data){
+        return isRead(reader(mapper,Map.class),data);
+    }
+
+
+    /**
+     * ByteBuffer convert Map
+     * @param data UTF-8 bytes between position and limit, position unchanged
+     * @return Optional<Map<K,V>>
+     * @param <K> Map Key
+     * @param <V> Map Value
+     */
+    public static<K,V> Optional<Map<K,V>> isMap(ByteBuffer data){
+        return isRead(reader(Map.class),data);
+    }
+
+
+    /**
+     * InputStream convert Map
+     * @param mapper ObjectMapper
+     * @param input UTF-8 stream, closed after reading
+     * @return Optional<Map<K,V>>
+     * @param <K> Map Key
+     * @param <V> Map Value
+     */
+    public static<K,V> Optional<Map<K,V>> isMap(ObjectMapper mapper,InputStream input){
+        return isRead(reader(mapper,Map.class),input);
+    }
+
+
+    /**
+     * InputStream convert Map
+     * @param input UTF-8 stream, closed after reading
+     * @return Optional<Map<K,V>>
+     * @param <K> Map Key
+     * @param <V> Map Value
+     */
+    public static<K,V> Optional<Map<K,V>> isMap(InputStream input){
+        return isRead(reader(Map.class),input);
+    }
+
+
+    /**
+     * byte[] convert List
+     * @param mapper ObjectMapper
+     * @param data UTF-8 bytes
+     * @return Optional<List<V>>
+     * @param <V> List value
+     */
+    public static<V> Optional<List<V>> isList(ObjectMapper mapper,byte[] data){
+        return isRead(reader(mapper,List.class),data);
+    }
+
+
+    /**
+     * byte[] convert List
+     * @param data UTF-8 bytes
+     * @return Optional<List<V>>
+     * @param <V> List value
+     */
+    public static<V> Optional<List<V>> isList(byte[] data){
+        return isRead(reader(List.class),data);
+    }
+
+
+    /**
+     * ByteBuffer convert List
+     * @param mapper ObjectMapper
+     * @param data UTF-8 bytes between position and limit, position unchanged
+     * @return Optional<List<V>>
+     * @param <V> List value
+     */
+    public static<V> Optional<List<V>> isList(ObjectMapper mapper,ByteBuffer data){
+        return isRead(reader(mapper,List.class),data);
+    }
+
+
+    /**
+     * ByteBuffer convert List
+     * @param data UTF-8 bytes between position and limit, position unchanged
+     * @return Optional<List<V>>
+     * @param <V> List value
+     */
+    public static<V> Optional<List<V>> isList(ByteBuffer data){
+        return isRead(reader(List.class),data);
+    }
+
+
+    /**
+     * InputStream convert List
+     * @param mapper ObjectMapper
+     * @param input UTF-8 stream, closed after reading
+     * @return Optional<List<V>>
+     * @param <V> List value
+     */
+    public static<V> Optional<List<V>> isList(ObjectMapper mapper,InputStream input){
+        return isRead(reader(mapper,List.class),input);
+    }
+
+
+    /**
+     * InputStream convert List
+     * @param input UTF-8 stream, closed after reading
+     * @return Optional<List<V>>
+     * @param <V> List value
+     */
+    public static<V> Optional<List<V>> isList(InputStream input){
+        return isRead(reader(List.class),input);
+    }
+
+
+    /**
+     * value to json bytes
+     * @param mapper ObjectMapper
+     * @param value value, such as Map, List, JsonNode or entity
+     * @return Optional<byte[]>
+     */
+    public static Optional<byte[]> isBytes(ObjectMapper mapper,Object value){
+        try{
+            return Optional.ofNullable(writer(mapper,typeOf(value)).writeValueAsBytes(value));
+        }catch (IOException e){
+            e.printStackTrace();
+            return Optional.empty();
+        }
+    }
+
+
+    /**
+     * value to json bytes
+     * @param value value, such as Map, List, JsonNode or entity
+     * @return Optional<byte[]>
+     */
+    public static Optional<byte[]> isBytes(Object value){
+        return isBytes(mapper,value);
+    }
+
+
+    /**
+     * write value as json into output, output is flushed and left open
+     * @param mapper ObjectMapper
+     * @param value value, such as Map, List, JsonNode or entity
+     * @param output OutputStream, such as a reused frame buffer
+     * @return Optional<OutputStream>, output
+     */
+    public static Optional<OutputStream> isWrite(ObjectMapper mapper,Object value,OutputStream output){
+        try{
+            isWriteTo(mapper,value,output);
+            return Optional.of(output);
+        }catch (IOException e){
+            e.printStackTrace();
+            return Optional.empty();
+        }
+    }
+
+
+    /**
+     * write value as json into output, output is flushed and left open
+     * @param value value, such as Map, List, JsonNode or entity
+     * @param output OutputStream, such as a reused frame buffer
+     * @return Optional<OutputStream>, output
+     */
+    public static Optional<OutputStream> isWrite(Object value,OutputStream output){
+        return isWrite(mapper,value,output);
+    }
+
+
+    /**
+     * write value as json into output from its position, position is advanced past the json
+     * @param mapper ObjectMapper
+     * @param value value, such as Map, List, JsonNode or entity
+     * @param output ByteBuffer, position unchanged if it overflows
+     * @return Optional<ByteBuffer>, output
+     */
+    public static Optional<ByteBuffer> isWrite(ObjectMapper mapper,Object value,ByteBuffer output){
+        int position = output.position();
+        try{
+            isWriteTo(mapper,value,new ByteBufferBackedOutputStream(output));
+            return Optional.of(output);
+        }catch (BufferOverflowException e){
+            output.position(position);
+            return Optional.empty();
+        }catch (IOException e){
+            output.position(position);
+            if(!(e.getCause() instanceof BufferOverflowException)){
+                e.printStackTrace();
+            }
+            return Optional.empty();
+        }
+    }
+
+
+    /**
+     * write value as json into output from its position, position is advanced past the json
+     * @param value value, such as Map, List, JsonNode or entity
+     * @param output ByteBuffer, position unchanged if it overflows
+     * @return Optional<ByteBuffer>, output
+     */
+    public static Optional<ByteBuffer> isWrite(Object value,ByteBuffer output){
+        return isWrite(mapper,value,output);
+    }
+
+
+    /**
+     * write value as json, output left open
+     * @param mapper ObjectMapper
+     * @param value value
+     * @param output OutputStream
+     * @throws IOException write failure
+     */
+    private static void isWriteTo(ObjectMapper mapper,Object value,OutputStream output) throws IOException{
+        ObjectWriter writer = writer(mapper,typeOf(value));
+        try(JsonGenerator generator = writer.createGenerator(output)){
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            writer.writeValue(generator,value);
+        }
+    }
+
+
+    /**
+     * writer type of value
+     * @param value value
+     * @return Class<?>
+     */
+    private static Class<?> typeOf(Object value){
+        return value == null ? Object.class : value.getClass();
+    }
+
+
+    /**
+     * read bytes
+     * @param reader ObjectReader
+     * @param data UTF-8 bytes
+     * @return Optional<T>
+     * @param <T> value type
+     */
+    private static<T> Optional<T> isRead(ObjectReader reader,byte[] data){
+        try{
+            return Optional.ofNullable(reader.readValue(data));
+        }catch (IOException e){
+            e.printStackTrace();
+            return Optional.empty();
+        }
+    }
+
+
+    /**
+     * read buffer without moving its position, heap buffers are read in place
+     * @param reader ObjectReader
+     * @param data UTF-8 bytes between position and limit
+     * @return Optional<T>
+     * @param <T> value type
+     */
+    private static<T> Optional<T> isRead(ObjectReader reader,ByteBuffer data){
+        try{
+            if(data.hasArray()){
+                return Optional.ofNullable(reader.readValue(data.array(),data.arrayOffset() + data.position(),data.remaining()));
+            }
+            return Optional.ofNullable(reader.readValue(new ByteBufferBackedInputStream(data.duplicate())));
+        }catch (IOException e){
+            e.printStackTrace();
+            return Optional.empty();
+        }
+    }
+
+
+    /**
+     * read stream
+     * @param reader ObjectReader
+     * @param input UTF-8 stream, closed after reading
+     * @return Optional<T>
+     * @param <T> value type
+     */
+    private static<T> Optional<T> isRead(ObjectReader reader,InputStream input){
+        try{
+            return Optional.ofNullable(reader.readValue(input));
+        }catch (IOException e){
+            e.printStackTrace();
+            return Optional.empty();
+        }
+    }
 }
@@ -0,0 +1,243 @@
+package com.meteorcat.mix.core.utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Wire format of structured data, same Optional shape as JsonNodeExtends over bytes
+ * <p>
+ * JSON shares the JsonNodeExtends mapper, SMILE is Jackson's binary JSON: same data model, no schema, smaller
+ * and cheaper to parse. Pick one per channel, such as SMILE for owner-to-owner traffic and snapshots.
+ *
+ * @author MeteorCat
+ */
+public enum NodeCodec {
+
+    /**
+     * Text json
+     */
+    JSON(JsonNodeExtends.getMapper()),
+
+    /**
+     * Binary json
+     */
+    SMILE(new ObjectMapper(new SmileFactory()));
+
+
+    /**
+     * Format mapper
+     */
+    private final ObjectMapper mapper;
+
+    /**
+     * Readers by type
+     */
+    private final Map<Type, ObjectReader> readers = new ConcurrentHashMap<>();
+
+    /**
+     * Writers by type
+     */
+    private final Map<Type, ObjectWriter> writers = new ConcurrentHashMap<>();
+
+
+    /**
+     * Construct Method
+     *
+     * @param mapper format mapper
+     */
+    NodeCodec(ObjectMapper mapper) {
+        this.mapper = mapper;
+    }
+
+
+    /**
+     * Format mapper, change its configuration through {@link #configure(Consumer)} only
+     *
+     * @return ObjectMapper
+     */
+    public ObjectMapper getMapper() {
+        return mapper;
+    }
+
+
+    /**
+     * Configure format mapper and drop readers and writers built from the previous configuration,
+     * JSON configures the shared JsonNodeExtends mapper
+     *
+     * @param configurer mapper change, such as registering a module or a feature
+     */
+    public void configure(Consumer<ObjectMapper> configurer) {
+        if (this == JSON) {
+            JsonNodeExtends.configure(configurer);
+            return;
+        }
+        synchronized (this) {
+            configurer.accept(mapper);
+            clear();
+        }
+    }
+
+
+    /**
+     * Drop cached readers and writers
+     */
+    void clear() {
+        readers.clear();
+        writers.clear();
+    }
+
+
+    /**
+     * Cached reader
+     *
+     * @param type target type, such as Class or ParameterizedType
+     * @return ObjectReader
+     */
+    public ObjectReader reader(Type type) {
+        ObjectReader reader = readers.get(type);
+        return reader != null ? reader : readers.computeIfAbsent(type, k -> mapper.readerFor(mapper.getTypeFactory().constructType(k)));
+    }
+
+
+    /**
+     * Cached writer
+     *
+     * @param type root type, such as Class or ParameterizedType
+     * @return ObjectWriter
+     */
+    public ObjectWriter writer(Type type) {
+        ObjectWriter writer = writers.get(type);
+        return writer != null ? writer : writers.computeIfAbsent(type, k -> mapper.writerFor(mapper.getTypeFactory().constructType(k)));
+    }
+
+
+    /**
+     * bytes convert JsonNode
+     *
+     * @param data encoded bytes
+     * @return Optional<JsonNode>
+     */
+    public Optional<JsonNode> isNode(byte[] data) {
+        try {
+            return Optional.ofNullable(mapper.readTree(data));
+        } catch (IOException e) {
+            e.printStackTrace();
+            return Optional.empty();
+        }
+    }
+
+
+    /**
+     * bytes convert value
+     *
+     * @param data  encoded bytes
+     * @param clazz value class
+     * @param <V>   value type
+     * @return Optional<V>
+     */
+    public <V> Optional<V> isValue(byte[] data, Class<V> clazz) {
+        try {
+            return Optional.ofNullable(reader(clazz).readValue(data));
+        } catch (IOException e) {
+            e.printStackTrace();
+            return Optional.empty();
+        }
+    }
+
+
+    /**
+     * bytes convert Map
+     *
+     * @param data encoded bytes
+     * @param <K>  Map Key
+     * @param <V>  Map Value
+     * @return Optional<Map<K,V>>
+     */
+    public <K, V> Optional<Map<K, V>> isMap(byte[] data) {
+        try {
+            return Optional.ofNullable(reader(Map.class).readValue(data));
+        } catch (IOException e) {
+            e.printStackTrace();
+            return Optional.empty();
+        }
+    }
+
+
+    /**
+     * bytes convert List
+     *
+     * @param data encoded bytes
+     * @param <V>  List value
+     * @return Optional<List<V>>
+     */
+    public <V> Optional<List<V>> isList(byte[] data) {
+        try {
+            return Optional.ofNullable(reader(List.class).readValue(data));
+        } catch (IOException e) {
+            e.printStackTrace();
+            return Optional.empty();
+        }
+    }
+
+
+    /**
+     * value convert bytes
+     *
+     * @param value value, such as entity or JsonNode
+     * @return Optional<byte[]>
+     */
+    public Optional<byte[]> isBytes(Object value) {
+        try {
+            return Optional.ofNullable(value == null ? writer(Object.class).writeValueAsBytes(null) : writer(value.getClass()).writeValueAsBytes(value));
+        } catch (IOException e) {
+            e.printStackTrace();
+            return Optional.empty();
+        }
+    }
+
+
+    /**
+     * Map convert bytes
+     *
+     * @param map Map
+     * @param <K> Map Key
+     * @param <V> Map Value
+     * @return Optional<byte[]>
+     */
+    public <K, V> Optional<byte[]> isMapBytes(Map<K, V> map) {
+        try {
+            return Optional.ofNullable(writer(Map.class).writeValueAsBytes(map));
+        } catch (IOException e) {
+            e.printStackTrace();
+            return Optional.empty();
+        }
+    }
+
+
+    /**
+     * List convert bytes
+     *
+     * @param list List
+     * @param <V>  List value
+     * @return Optional<byte[]>
+     */
+    public <V> Optional<byte[]> isListBytes(List<V> list) {
+        try {
+            return Optional.ofNullable(writer(List.class).writeValueAsBytes(list));
+        } catch (IOException e) {
+            e.printStackTrace();
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.meteorcat.mix.core.actor;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ActorDispatcher serial inline calls
+ *
+ * @author MeteorCat
+ */
+class ActorDispatcherTest {
+
+    /**
+     * Serial controller
+     */
+    public static class Controller {
+
+        /**
+         * hold the owner mailbox
+         *
+         * @param entered counted down once running
+         * @param release awaited before returning
+         * @throws InterruptedException interrupted
+         */
+        @ActorMapping(value = 1, serial = true)
+        public void hold(CountDownLatch entered, CountDownLatch release) throws InterruptedException {
+            entered.countDown();
+            release.await(5, TimeUnit.SECONDS);
+        }
+
+        /**
+         * always fails
+         */
+        @ActorMapping(value = 2, serial = true)
+        public void fail() {
+            throw new IllegalStateException("fail");
+        }
+    }
+
+
+    /**
+     * tuple of controller method
+     *
+     * @param value  opcode
+     * @param name   method name
+     * @param params method parameter types
+     * @return ActorTuple
+     * @throws NoSuchMethodException missing method
+     */
+    private static ActorTuple tuple(int value, String name, Class<?>... params) throws NoSuchMethodException {
+        Controller controller = new Controller();
+        return new ActorTuple(value, controller, Controller.class.getMethod(name, params));
+    }
+
+
+    /**
+     * An inline serial call throws its own failure to its caller
+     */
+    @Test
+    void inlineCallThrowsOwnFailure() throws Exception {
+        ActorDispatcher<String> dispatcher = new ActorDispatcher<>(Runnable::run);
+        ActorTuple fail = tuple(2, "fail");
+
+        assertThrows(IllegalStateException.class, () -> dispatcher.dispatch("owner", fail));
+    }
+
+
+    /**
+     * A call queued by another caller and drained inline fails on the drainer's uncaught handler, not its dispatch
+     */
+    @Test
+    void inlineDrainNeverThrowsOtherCallersFailure() throws Exception {
+        ActorDispatcher<String> dispatcher = new ActorDispatcher<>(Runnable::run);
+        ActorTuple hold = tuple(1, "hold", CountDownLatch.class, CountDownLatch.class);
+        ActorTuple fail = tuple(2, "fail");
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicReference<Throwable> dispatched = new AtomicReference<>();
+        AtomicReference<Throwable> uncaught = new AtomicReference<>();
+
+        Thread drainer = new Thread(() -> {
+            try {
+                dispatcher.dispatch("owner", hold, entered, release);
+            } catch (Throwable throwable) {
+                dispatched.set(throwable);
+            }
+        });
+        drainer.setUncaughtExceptionHandler((thread, throwable) -> uncaught.set(throwable));
+        drainer.start();
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+        // queued behind the running call, drained by the other caller's thread
+        assertDoesNotThrow(() -> dispatcher.dispatch("owner", fail));
+        release.countDown();
+        drainer.join(5000);
+
+        assertNull(dispatched.get());
+        assertTrue(uncaught.get() instanceof IllegalStateException);
+    }
+
+
+    /**
+     * With an error handler every failure reaches it, whoever drains the call
+     */
+    @Test
+    void errorHandlerReceivesDrainedFailure() throws Exception {
+        ExecutorService offload = Executors.newSingleThreadExecutor();
+        try {
+            ActorDispatcher<String> dispatcher = new ActorDispatcher<>(offload);
+            AtomicReference<ActorTuple> failed = new AtomicReference<>();
+            CountDownLatch reported = new CountDownLatch(1);
+            dispatcher.setErrorHandler((tuple, failure) -> {
+                failed.set(tuple);
+                reported.countDown();
+            });
+            ActorTuple fail = tuple(2, "fail");
+
+            dispatcher.dispatch("owner", fail);
+
+            assertTrue(reported.await(5, TimeUnit.SECONDS));
+            assertSame(fail, failed.get());
+        } finally {
+            offload.shutdownNow();
+        }
+    }
+}
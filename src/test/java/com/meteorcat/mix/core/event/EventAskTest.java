@@ -0,0 +1,188 @@
+package com.meteorcat.mix.core.event;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * EventMonitor ask completion and metrics
+ *
+ * @author MeteorCat
+ */
+class EventAskTest {
+
+    /**
+     * Ask event
+     */
+    private static final int ASK = 1;
+
+
+    /**
+     * Failure cause of a completed future
+     *
+     * @param future completed future
+     * @return Throwable
+     */
+    private static Throwable cause(CompletableFuture<?> future) {
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        return exception.getCause();
+    }
+
+
+    /**
+     * Queued ask callbacks of metrics
+     *
+     * @param monitor monitor with metrics
+     * @return long
+     */
+    private static long queued(EventMonitor<String, Integer> monitor) {
+        EventMetric.Snapshot snapshot = monitor.getMetrics().orElseThrow().snapshot().get(ASK);
+        return snapshot == null ? 0L : snapshot.getQueued();
+    }
+
+
+    /**
+     * Reply completes the future
+     */
+    @Test
+    void replyCompletesFuture() throws Exception {
+        for (boolean mailbox : new boolean[]{false, true}) {
+            EventMonitor<String, Integer> monitor = new EventMonitor<>(2);
+            monitor.setMailbox(mailbox);
+            try {
+                monitor.putEvent("owner", ASK, new ReplyEvent<Integer, Integer>(payload -> payload * 2));
+                CompletableFuture<Integer> future = monitor.ask("owner", ASK, 21, 5, TimeUnit.SECONDS);
+                assertEquals(42, future.get(5, TimeUnit.SECONDS));
+            } finally {
+                monitor.shutdownNow();
+            }
+        }
+    }
+
+
+    /**
+     * A slow reply times out, the late reply is skipped and metrics settle
+     */
+    @Test
+    void slowReplyTimesOut() throws Exception {
+        EventMonitor<String, Integer> monitor = new EventMonitor<>(2);
+        monitor.setMetrics(true);
+        try {
+            CountDownLatch release = new CountDownLatch(1);
+            monitor.putEvent("owner", ASK, new ReplyEvent<Integer, Integer>(payload -> {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                }
+                return payload;
+            }));
+            CompletableFuture<Integer> future = monitor.ask("owner", ASK, 1, 20, TimeUnit.MILLISECONDS);
+
+            assertTrue(cause(future) instanceof TimeoutException);
+            release.countDown();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (monitor.getMetrics().orElseThrow().getRunning() > 0 && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            assertEquals(0L, monitor.getMetrics().orElseThrow().getRunning());
+            assertEquals(0L, queued(monitor));
+        } finally {
+            monitor.shutdownNow();
+        }
+    }
+
+
+    /**
+     * An ask refused by the executor completes exceptionally and leaves no queued callback behind
+     */
+    @Test
+    void rejectedAskRestoresMetrics() throws Exception {
+        for (long timeout : new long[]{0L, 5000L}) {
+            EventMonitor<String, Integer> monitor = new EventMonitor<>(1);
+            monitor.setMetrics(true);
+            monitor.putEvent("owner", ASK, new ReplyEvent<Integer, Integer>(payload -> payload));
+            monitor.shutdown();
+
+            for (int i = 0; i < 3; i++) {
+                CompletableFuture<Integer> future = monitor.ask("owner", ASK, 1, timeout, TimeUnit.MILLISECONDS);
+                assertTrue(cause(future) instanceof RejectedExecutionException);
+            }
+            assertEquals(0L, queued(monitor));
+        }
+    }
+
+
+    /**
+     * An ask refused by a full mailbox completes exceptionally and leaves no queued callback behind
+     */
+    @Test
+    void overflowedAskRestoresMetrics() throws Exception {
+        EventMonitor<String, Integer> monitor = new EventMonitor<>(2);
+        monitor.setMailbox(true);
+        monitor.setMailboxBound(1, EventOverflow.REJECT);
+        monitor.setMetrics(true);
+        try {
+            CountDownLatch entered = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            AtomicInteger held = new AtomicInteger();
+            monitor.putEvent("owner", 2, new Event(() -> {
+                if (held.getAndIncrement() == 0) {
+                    entered.countDown();
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException exception) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }));
+            monitor.putEvent("owner", ASK, new ReplyEvent<Integer, Integer>(payload -> payload));
+            monitor.execute("owner", 2);
+            assertTrue(entered.await(5, TimeUnit.SECONDS));
+            // fills the only slot
+            monitor.execute("owner", 2);
+
+            CompletableFuture<Integer> future = monitor.ask("owner", ASK, 1, 5, TimeUnit.SECONDS);
+            assertTrue(cause(future) instanceof RejectedExecutionException);
+            assertEquals(0L, queued(monitor));
+            release.countDown();
+        } finally {
+            monitor.shutdownNow();
+        }
+    }
+
+
+    /**
+     * Monitors without ask support fail the future instead of not compiling
+     */
+    @Test
+    void defaultAskUnsupported() {
+        IEventMonitor<String, Integer> monitor = new IEventMonitor<>() {
+            @Override
+            public void execute(String owner, Integer event) {
+            }
+
+            @Override
+            public void schedule(String owner, Integer event, long delay, TimeUnit unit) {
+            }
+
+            @Override
+            public void scheduleAtFixedRate(String owner, Integer event, long initialDelay, long period, TimeUnit unit) {
+            }
+
+            @Override
+            public void scheduleWithFixedDelay(String owner, Integer event, long initialDelay, long delay, TimeUnit unit) {
+            }
+        };
+        CompletableFuture<Object> future = monitor.ask("owner", ASK, null, 0, TimeUnit.SECONDS);
+        assertTrue(cause(future) instanceof UnsupportedOperationException);
+    }
+}
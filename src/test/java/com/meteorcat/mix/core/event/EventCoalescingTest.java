@@ -0,0 +1,147 @@
+package com.meteorcat.mix.core.event;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * EventMonitor coalescing mode
+ *
+ * @author MeteorCat
+ */
+class EventCoalescingTest {
+
+    /**
+     * Block the only pool thread until released
+     *
+     * @param monitor one-thread monitor
+     * @param release released by the test
+     * @throws InterruptedException interrupted
+     */
+    private static void occupy(EventMonitor<String, Integer> monitor, CountDownLatch release) throws InterruptedException {
+        CountDownLatch entered = new CountDownLatch(1);
+        monitor.execute(() -> {
+            entered.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+    }
+
+
+    /**
+     * Wait until counter reaches value
+     *
+     * @param counter counter
+     * @param value   expected value
+     * @throws InterruptedException interrupted
+     */
+    private static void await(AtomicInteger counter, int value) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (counter.get() < value && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(value, counter.get());
+    }
+
+
+    /**
+     * Executes of a pending (owner, event) merge into it and are counted
+     */
+    @Test
+    void pendingExecutesMerge() throws InterruptedException {
+        for (boolean mailbox : new boolean[]{false, true}) {
+            EventMonitor<String, Integer> monitor = new EventMonitor<>(1);
+            monitor.setMailbox(mailbox);
+            monitor.setCoalescing(true);
+            try {
+                AtomicInteger ran = new AtomicInteger();
+                monitor.putEvent("owner", 1, new Event(ran::incrementAndGet));
+                CountDownLatch release = new CountDownLatch(1);
+                occupy(monitor, release);
+
+                for (int i = 0; i < 5; i++) {
+                    monitor.execute("owner", 1);
+                }
+                assertEquals(4, monitor.getCoalescedCount());
+                release.countDown();
+                await(ran, 1);
+
+                // flag cleared once started, the next execute queues again
+                monitor.execute("owner", 1);
+                await(ran, 2);
+                assertEquals(4, monitor.resetCoalescedCount());
+                assertEquals(0, monitor.getCoalescedCount());
+            } finally {
+                monitor.shutdownNow();
+            }
+        }
+    }
+
+
+    /**
+     * Executes of other owners sharing nothing are never merged
+     */
+    @Test
+    void distinctRegistrationsNeverMerge() throws InterruptedException {
+        EventMonitor<String, Integer> monitor = new EventMonitor<>(1);
+        monitor.setCoalescing(true);
+        try {
+            AtomicInteger ran = new AtomicInteger();
+            monitor.putEvent("first", 1, new Event(ran::incrementAndGet));
+            monitor.putEvent("second", 1, new Event(ran::incrementAndGet));
+            CountDownLatch release = new CountDownLatch(1);
+            occupy(monitor, release);
+
+            monitor.execute("first", 1);
+            monitor.execute("second", 1);
+            release.countDown();
+            await(ran, 2);
+            assertEquals(0, monitor.getCoalescedCount());
+        } finally {
+            monitor.shutdownNow();
+        }
+    }
+
+
+    /**
+     * A shared Event serves many registrations without coalescing, coalescing binds it to one
+     */
+    @Test
+    void sharedEventOnlyRefusedWhileCoalescing() {
+        Event shared = new Event(() -> {
+        });
+
+        EventMonitor<String, Integer> plain = new EventMonitor<>(1);
+        try {
+            plain.putEvent("first", 1, shared);
+            assertDoesNotThrow(() -> plain.putEvent("second", 1, shared));
+            assertDoesNotThrow(() -> plain.putEvent("first", 2, shared));
+        } finally {
+            plain.shutdownNow();
+        }
+
+        Event bound = new Event(() -> {
+        });
+        EventMonitor<String, Integer> coalescing = new EventMonitor<>(1);
+        coalescing.setCoalescing(true);
+        try {
+            coalescing.putEvent("first", 1, bound);
+            assertDoesNotThrow(() -> coalescing.putEvent("first", 1, bound));
+            assertThrows(IllegalStateException.class, () -> coalescing.putEvent("second", 1, bound));
+
+            // removal frees it for another registration
+            coalescing.remove("first", 1);
+            assertDoesNotThrow(() -> coalescing.putEvent("second", 1, bound));
+        } finally {
+            coalescing.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.meteorcat.mix.core.event;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * EventMailbox drain and retirement
+ *
+ * @author MeteorCat
+ */
+class EventMailboxTest {
+
+    /**
+     * A failing callback goes to the failure handler, the rest of the drain still runs
+     */
+    @Test
+    void failingCallbackKeepsDraining() {
+        Queue<Runnable> submitted = new ConcurrentLinkedQueue<>();
+        List<Throwable> failures = new ArrayList<>();
+        EventMailbox box = new EventMailbox(submitted::add, EventMailbox.DEFAULT_THROUGHPUT, Integer.MAX_VALUE,
+                EventOverflow.REJECT, 0L, null, (runnable, failure) -> failures.add(failure));
+        AtomicInteger ran = new AtomicInteger();
+
+        assertTrue(box.offer(() -> {
+            throw new IllegalStateException("first");
+        }));
+        assertFalse(box.offer(ran::incrementAndGet));
+        assertDoesNotThrow(box::run);
+
+        assertEquals(1, ran.get());
+        assertEquals(1, failures.size());
+        assertTrue(box.isEmpty());
+        assertTrue(submitted.isEmpty());
+    }
+
+
+    /**
+     * A periodic event keeps firing although a callback drained inline by its timer thread fails
+     */
+    @Test
+    void failingInlineDrainKeepsPeriodicEvent() throws InterruptedException {
+        AtomicInteger failures = new AtomicInteger();
+        EventMonitor<String, Integer> monitor = new EventMonitor<String, Integer>(2) {
+            @Override
+            protected void afterExecute(Runnable runnable, Throwable throwable) {
+                if (throwable != null) {
+                    failures.incrementAndGet();
+                }
+            }
+        };
+        monitor.setMailbox(true);
+        try {
+            CountDownLatch fired = new CountDownLatch(5);
+            monitor.putEvent("owner", 1, new Event(() -> {
+                fired.countDown();
+                throw new IllegalStateException("periodic");
+            }));
+            monitor.scheduleAtFixedRate("owner", 1, 0, 1, TimeUnit.MILLISECONDS);
+
+            assertTrue(fired.await(5, TimeUnit.SECONDS));
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (failures.get() < 5 && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            ScheduledFuture<?> future = monitor.getEvent("owner", 1).orElseThrow().getFuture();
+            assertFalse(future.isDone());
+            assertTrue(failures.get() >= 5);
+        } finally {
+            monitor.shutdownNow();
+        }
+    }
+
+
+    /**
+     * A retired mailbox not unlinked yet is replaced, callbacks of the re-registered owner still run
+     */
+    @Test
+    void retiredMailboxReplacedForLiveOwner() throws InterruptedException {
+        EventMonitor<String, Integer> monitor = new EventMonitor<>(2);
+        monitor.setMailbox(true);
+        AtomicInteger refused = new AtomicInteger();
+        monitor.setRejectedHandler((owner, runnable) -> refused.incrementAndGet());
+        try {
+            CountDownLatch ran = new CountDownLatch(2);
+            monitor.putEvent("owner", 1, new Event(ran::countDown));
+            monitor.execute("owner", 1);
+            EventMailbox retired = monitor.getMailbox("owner").orElseThrow();
+            awaitEmpty(retired);
+
+            // retire without unlinking: the state between terminate() and the unlink callback
+            retired.retire(null);
+            assertTrue(retired.isRetired());
+            monitor.execute("owner", 1);
+
+            assertTrue(ran.await(5, TimeUnit.SECONDS));
+            assertEquals(0, refused.get());
+            assertNotSame(retired, monitor.getMailbox("owner").orElseThrow());
+        } finally {
+            monitor.shutdownNow();
+        }
+    }
+
+
+    /**
+     * Owners removed and re-registered while their mailbox drains never lose a callback:
+     * each one runs, or is refused because its owner was removed at that moment
+     */
+    @Test
+    void removeAndReRegisterLosesNothing() throws InterruptedException {
+        int rounds = 2000;
+        EventMonitor<String, Integer> monitor = new EventMonitor<>(4);
+        monitor.setMailbox(true);
+        AtomicInteger ran = new AtomicInteger();
+        AtomicInteger refused = new AtomicInteger();
+        monitor.setRejectedHandler((owner, runnable) -> refused.incrementAndGet());
+        try {
+            for (int i = 0; i < rounds; i++) {
+                monitor.putEvent("owner", 1, new Event(ran::incrementAndGet));
+                monitor.execute("owner", 1);
+                monitor.remove("owner");
+            }
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (ran.get() + refused.get() < rounds && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            assertEquals(rounds, ran.get() + refused.get());
+            assertTrue(monitor.getMailbox("owner").isEmpty() || monitor.getMailbox("owner").get().isEmpty());
+        } finally {
+            monitor.shutdownNow();
+        }
+    }
+
+
+    /**
+     * Wait until a mailbox drained its callbacks and went idle
+     *
+     * @param box mailbox
+     * @throws InterruptedException interrupted
+     */
+    private static void awaitEmpty(EventMailbox box) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (box.size() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        // let the drain release its claim
+        Thread.sleep(20);
+    }
+}
@@ -0,0 +1,65 @@
+package com.meteorcat.mix.core.event;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * EventMetric running callbacks and active owners
+ *
+ * @author MeteorCat
+ */
+class EventMetricTest {
+
+    /**
+     * Every running callback counts, an owner counts once until its last callback ends
+     */
+    @Test
+    void activeCountsDistinctOwners() {
+        EventMetric metric = new EventMetric();
+        LongAdder total = new LongAdder();
+        long[] inner = new long[2];
+        long[] outer = new long[2];
+
+        Runnable second = metric.timed("first", () -> {
+            EventMetric.Snapshot snapshot = metric.snapshot();
+            inner[0] = snapshot.getRunning();
+            inner[1] = snapshot.getActive();
+        }, total);
+        Runnable other = metric.timed("second", second, total);
+        metric.timed("first", () -> {
+            other.run();
+            EventMetric.Snapshot snapshot = metric.snapshot();
+            outer[0] = snapshot.getRunning();
+            outer[1] = snapshot.getActive();
+        }, total).run();
+
+        assertArrayEquals(new long[]{3L, 2L}, inner);
+        assertArrayEquals(new long[]{1L, 1L}, outer);
+        EventMetric.Snapshot snapshot = metric.snapshot();
+        assertEquals(0L, snapshot.getRunning());
+        assertEquals(0L, snapshot.getActive());
+        assertEquals(0L, total.sum());
+    }
+
+
+    /**
+     * A failing callback still deactivates its owner
+     */
+    @Test
+    void failureReleasesOwner() {
+        EventMetric metric = new EventMetric();
+        LongAdder total = new LongAdder();
+        Runnable failing = metric.timed("owner", () -> {
+            throw new IllegalStateException("fail");
+        }, total);
+
+        assertThrows(IllegalStateException.class, failing::run);
+        EventMetric.Snapshot snapshot = metric.snapshot();
+        assertEquals(1L, snapshot.getErrors());
+        assertEquals(0L, snapshot.getActive());
+        assertEquals(0L, snapshot.getRunning());
+    }
+}
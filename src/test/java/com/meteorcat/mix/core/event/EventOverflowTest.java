@@ -0,0 +1,207 @@
+package com.meteorcat.mix.core.event;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Bounded owner mailboxes and overflow routing
+ *
+ * @author MeteorCat
+ */
+class EventOverflowTest {
+
+    /**
+     * Holding event
+     */
+    private static final int HOLD = 1;
+
+    /**
+     * Counted event
+     */
+    private static final int COUNT = 2;
+
+
+    /**
+     * Monitor with one-slot mailboxes whose owner is held by its first callback
+     *
+     * @param overflow overflow policy
+     * @param timeout  BLOCK wait (milliseconds)
+     * @param entered  counted down once the owner is held
+     * @param release  releases the owner
+     * @param counted  runs of the counted event
+     * @return EventMonitor
+     * @throws InterruptedException interrupted
+     */
+    private static EventMonitor<String, Integer> held(EventOverflow overflow, long timeout, CountDownLatch entered,
+                                                      CountDownLatch release, AtomicInteger counted) throws InterruptedException {
+        EventMonitor<String, Integer> monitor = new EventMonitor<>(2);
+        monitor.setMailbox(true);
+        monitor.setMailboxBound(1, overflow, timeout, TimeUnit.MILLISECONDS);
+        monitor.putEvent("owner", HOLD, new Event(() -> {
+            entered.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        monitor.putEvent("owner", COUNT, new Event(counted::incrementAndGet));
+        monitor.execute("owner", HOLD);
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+        return monitor;
+    }
+
+
+    /**
+     * REJECT refuses the callback past the bound and hands it to the rejected handler
+     */
+    @Test
+    void rejectRoutesToHandler() throws InterruptedException {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger counted = new AtomicInteger();
+        EventMonitor<String, Integer> monitor = held(EventOverflow.REJECT, 0L, entered, release, counted);
+        List<String> rejected = new CopyOnWriteArrayList<>();
+        monitor.setRejectedHandler((owner, runnable) -> rejected.add(owner));
+        try {
+            monitor.execute("owner", COUNT);
+            monitor.execute("owner", COUNT);
+            monitor.execute("owner", COUNT);
+
+            assertEquals(List.of("owner", "owner"), rejected);
+            assertEquals(1, monitor.getDepth("owner"));
+            assertEquals(2, monitor.getMailbox("owner").orElseThrow().getDropped());
+            release.countDown();
+            awaitCount(counted, 1);
+        } finally {
+            monitor.shutdownNow();
+        }
+    }
+
+
+    /**
+     * BLOCK waits for a slot, then refuses to the rejected handler once its timeout passed
+     */
+    @Test
+    void blockTimeoutRoutesToHandler() throws InterruptedException {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger counted = new AtomicInteger();
+        EventMonitor<String, Integer> monitor = held(EventOverflow.BLOCK, 20L, entered, release, counted);
+        List<String> rejected = new CopyOnWriteArrayList<>();
+        monitor.setRejectedHandler((owner, runnable) -> rejected.add(owner));
+        try {
+            monitor.execute("owner", COUNT);
+            long start = System.nanoTime();
+            monitor.execute("owner", COUNT);
+
+            assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(20));
+            assertEquals(List.of("owner"), rejected);
+            release.countDown();
+            awaitCount(counted, 1);
+        } finally {
+            monitor.shutdownNow();
+        }
+    }
+
+
+    /**
+     * BLOCK admits the callback once a slot frees within its timeout
+     */
+    @Test
+    void blockAdmitsWhenSlotFrees() throws InterruptedException {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger counted = new AtomicInteger();
+        EventMonitor<String, Integer> monitor = held(EventOverflow.BLOCK, 5000L, entered, release, counted);
+        List<String> rejected = new CopyOnWriteArrayList<>();
+        monitor.setRejectedHandler((owner, runnable) -> rejected.add(owner));
+        try {
+            monitor.execute("owner", COUNT);
+            Thread releaser = new Thread(() -> {
+                try {
+                    Thread.sleep(20);
+                } catch (InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                }
+                release.countDown();
+            });
+            releaser.start();
+            monitor.execute("owner", COUNT);
+
+            awaitCount(counted, 2);
+            assertTrue(rejected.isEmpty());
+        } finally {
+            monitor.shutdownNow();
+        }
+    }
+
+
+    /**
+     * DROP policies discard silently, the rejected handler is not called
+     */
+    @Test
+    void dropPoliciesSkipHandler() throws InterruptedException {
+        for (EventOverflow overflow : new EventOverflow[]{EventOverflow.DROP_NEWEST, EventOverflow.DROP_OLDEST}) {
+            CountDownLatch entered = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            AtomicInteger counted = new AtomicInteger();
+            EventMonitor<String, Integer> monitor = held(overflow, 0L, entered, release, counted);
+            List<String> rejected = new CopyOnWriteArrayList<>();
+            monitor.setRejectedHandler((owner, runnable) -> rejected.add(owner));
+            try {
+                for (int i = 0; i < 3; i++) {
+                    monitor.execute("owner", COUNT);
+                }
+
+                assertEquals(1, monitor.getDepth("owner"));
+                assertEquals(2, monitor.getMailbox("owner").orElseThrow().getDropped());
+                assertTrue(rejected.isEmpty());
+                release.countDown();
+                awaitCount(counted, 1);
+            } finally {
+                monitor.shutdownNow();
+            }
+        }
+    }
+
+
+    /**
+     * Bounds need mailbox mode
+     */
+    @Test
+    void boundRefusedInSynchronizedMode() {
+        EventMonitor<String, Integer> monitor = new EventMonitor<>(1);
+        try {
+            assertThrows(IllegalStateException.class, () -> monitor.setMailboxBound(1, EventOverflow.REJECT));
+            monitor.setMailbox(true);
+            monitor.setMailboxBound(1, EventOverflow.REJECT);
+            assertThrows(IllegalStateException.class, () -> monitor.setMailbox(false));
+        } finally {
+            monitor.shutdownNow();
+        }
+    }
+
+
+    /**
+     * Wait until counter reaches value
+     *
+     * @param counter counter
+     * @param value   expected value
+     * @throws InterruptedException interrupted
+     */
+    private static void awaitCount(AtomicInteger counter, int value) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (counter.get() < value && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(value, counter.get());
+    }
+}
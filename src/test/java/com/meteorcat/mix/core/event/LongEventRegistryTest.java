@@ -0,0 +1,55 @@
+package com.meteorcat.mix.core.event;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * LongEventRegistry lookups
+ *
+ * @author MeteorCat
+ */
+class LongEventRegistryTest {
+
+    /**
+     * Monitor lookups resolve through the primitive registry and any other registry alike
+     */
+    @Test
+    void lookupMatchesBoxedGet() {
+        Event e = new Event(() -> {
+        });
+
+        LongEventRegistry primitive = new LongEventRegistry();
+        primitive.put(1L, 2, e);
+        assertSame(e, LongEventRegistry.lookup(primitive, 1L, 2));
+        assertNull(LongEventRegistry.lookup(primitive, 1L, 3));
+        assertNull(LongEventRegistry.lookup(primitive, 2L, 2));
+
+        EventRegistry<String, Integer> boxed = new EventRegistry<>();
+        boxed.put("owner", 2, e, 4);
+        assertSame(e, LongEventRegistry.lookup(boxed, "owner", 2));
+        assertNull(LongEventRegistry.lookup(boxed, "other", 2));
+    }
+
+
+    /**
+     * Monitors backed by a LongEventRegistry dispatch registered events
+     */
+    @Test
+    void monitorDispatchesThroughPrimitiveRegistry() throws Exception {
+        EventMonitor<Long, Integer> monitor = new EventMonitor<>(1);
+        monitor.setRegistry(new LongEventRegistry());
+        try {
+            CountDownLatch ran = new CountDownLatch(1);
+            monitor.putEvent(7L, 1, new Event(ran::countDown));
+            assertTrue(monitor.getEvent(7L, 1).isPresent());
+            monitor.execute(7L, 1);
+            assertTrue(ran.await(5, TimeUnit.SECONDS));
+        } finally {
+            monitor.shutdownNow();
+        }
+    }
+}